@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config.benchmarks;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import pfg.config.BaseConfigInfo;
+import pfg.config.Config;
+import pfg.config.ConfigInfo;
+
+/**
+ * Read latency of a Config in concurrent mode while a writer thread overrides batches of values.
+ * The number of reader threads is set with "-tg readers,1", or by running {@link #main(String[])}, which goes from 1 to 64 readers.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ConfigContentionBenchmark
+{
+	@Param({"1000"})
+	public int keys;
+
+	private Config config;
+	private ConfigInfo<Integer>[] infos;
+	private HashMap<ConfigInfo, Object> batch;
+	private int counter;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup()
+	{
+		infos = new ConfigInfo[keys];
+		for(int i = 0; i < keys; i++)
+			infos[i] = new BaseConfigInfo<>("key" + i, i, Integer.class);
+		config = new Config(infos, false);
+		config.setConcurrent(true);
+		batch = new HashMap<>();
+	}
+
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(4)
+	public int read()
+	{
+		return config.getIntValue(infos[keys - 1]);
+	}
+
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(1)
+	public void overrideBatch()
+	{
+		counter++;
+		for(int i = 0; i < 10; i++)
+			batch.put(infos[i], counter);
+		config.override(batch);
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		for(int readers = 1; readers <= 64; readers *= 2)
+			new Runner(new OptionsBuilder().include(ConfigContentionBenchmark.class.getSimpleName()).threadGroups(readers, 1).build()).run();
+	}
+}
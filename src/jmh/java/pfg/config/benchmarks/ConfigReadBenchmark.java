@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import pfg.config.BaseConfigInfo;
+import pfg.config.Config;
+import pfg.config.ConfigInfo;
+
+/**
+ * Read latency of a Config depending on the number of registered keys.
+ * The last registered key is read, which was the worst case of the former linear membership check.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigReadBenchmark
+{
+	@Param({"10", "1000", "100000"})
+	public int keys;
+
+	private Config config;
+	private ConfigInfo<Integer> first;
+	private ConfigInfo<Integer> last;
+
+	@Setup
+	public void setup()
+	{
+		ConfigInfo<?>[] infos = new ConfigInfo<?>[keys];
+		for(int i = 0; i < keys; i++)
+			infos[i] = new BaseConfigInfo<>("key" + i, i, Integer.class);
+		config = new Config(infos, false);
+		first = cast(infos[0]);
+		last = cast(infos[keys - 1]);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ConfigInfo<Integer> cast(ConfigInfo<?> info)
+	{
+		return (ConfigInfo<Integer>) info;
+	}
+
+	@Benchmark
+	public Integer getFirst()
+	{
+		return config.get(first);
+	}
+
+	@Benchmark
+	public Integer getLast()
+	{
+		return config.get(last);
+	}
+
+	@Benchmark
+	public int getIntValueLast()
+	{
+		return config.getIntValue(last);
+	}
+
+	@Benchmark
+	public Integer getIntLast()
+	{
+		return config.getInt(last);
+	}
+
+	@Benchmark
+	public Object getObjectLast()
+	{
+		return config.getObject(last);
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import pfg.config.BaseConfigInfo;
+import pfg.config.Config;
+import pfg.config.ConfigInfo;
+import pfg.config.ConfigOptions;
+
+/**
+ * Construction time of a Config from a file in the style of config_example.ini (integers, doubles, booleans and strings,
+ * a default profile overridden by another one, comments and unknown keys), depending on the number of keys
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConstructionBenchmark
+{
+	@Param({"10", "1000", "100000"})
+	public int keys;
+
+	private ConfigInfo<?>[] infos;
+	private File file;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		infos = new ConfigInfo<?>[keys];
+		for(int i = 0; i < keys; i++)
+			switch(i % 4)
+			{
+				case 0:
+					infos[i] = new BaseConfigInfo<>("someIntegerValue" + i, i, Integer.TYPE);
+					break;
+				case 1:
+					infos[i] = new BaseConfigInfo<>("someDoubleValue" + i, 0.5 * i, Double.TYPE);
+					break;
+				case 2:
+					infos[i] = new BaseConfigInfo<>("someBooleanValue" + i, false, Boolean.TYPE);
+					break;
+				default:
+					infos[i] = new BaseConfigInfo<>("someStringValue" + i, "default-value", String.class);
+			}
+
+		file = File.createTempFile("benchmark", ".ini");
+		file.deleteOnExit();
+		try(PrintWriter writer = new PrintWriter(file, "UTF-8"))
+		{
+			writer.println("[default]");
+			writer.println("# This is a commentary");
+			for(int i = 0; i < keys; i++)
+				writer.println(line(i));
+			writer.println("SOME_UNKNOWN_VALUE = ????");
+			writer.println();
+			writer.println("[example]");
+			for(int i = 0; i < keys; i += 10)
+				writer.println(line(i));
+		}
+	}
+
+	private static String line(int i)
+	{
+		switch(i % 4)
+		{
+			case 0:
+				return "SOME_INTEGER_VALUE" + i + " = " + (18754 + i);
+			case 1:
+				return "SOME_DOUBLE_VALUE" + i + " = " + (i / 3.);
+			case 2:
+				return "SOME_BOOLEAN_VALUE" + i + " = true";
+			default:
+				return "SomE_StrinG_ValuE" + i + " = file-value";
+		}
+	}
+
+	@Benchmark
+	public Config load()
+	{
+		return new Config(infos, false, file.getAbsolutePath(), "default", "example");
+	}
+
+	@Benchmark
+	public Config loadMemoryMapped()
+	{
+		return new Config(infos, false, file.getAbsolutePath(), new ConfigOptions().memoryMapped(true), "default", "example");
+	}
+
+	@Benchmark
+	public Config loadLazy()
+	{
+		return new Config(infos, false, file.getAbsolutePath(), new ConfigOptions().lazy(true), "default", "example");
+	}
+}
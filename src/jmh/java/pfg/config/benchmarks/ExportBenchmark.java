@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import pfg.config.BaseConfigInfo;
+import pfg.config.Config;
+import pfg.config.ConfigExport;
+import pfg.config.ConfigInfo;
+
+/**
+ * Export of the numeric values into a direct buffer: by looping over the ConfigInfo with the boxing getter,
+ * with {@link Config#export(ByteBuffer)}, and with {@link ConfigExport#update()} after an override
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExportBenchmark
+{
+	@Param({"10", "1000"})
+	public int keys;
+
+	private Config config;
+	private ConfigInfo<Double>[] infos;
+	private ByteBuffer buffer;
+	private ConfigExport export;
+	private double counter;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup()
+	{
+		infos = new ConfigInfo[keys];
+		for(int i = 0; i < keys; i++)
+			infos[i] = new BaseConfigInfo<>("key" + i, (double) i, Double.TYPE);
+		config = new Config(infos, false);
+		buffer = ByteBuffer.allocateDirect(config.getLayout().size()).order(ByteOrder.nativeOrder());
+		export = config.export(buffer);
+	}
+
+	@Benchmark
+	public ByteBuffer boxedLoop()
+	{
+		for(int i = 0; i < keys; i++)
+			buffer.putDouble(8 * i, config.get(infos[i]));
+		return buffer;
+	}
+
+	@Benchmark
+	public ConfigExport export()
+	{
+		return config.export(buffer);
+	}
+
+	@Benchmark
+	public int update()
+	{
+		config.override(infos[0], counter++);
+		return export.update();
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import pfg.config.BaseConfigInfo;
+import pfg.config.ConfigInfo;
+
+/**
+ * Cost of {@link ConfigInfo#findAllIn(Class)} on a class holding 64 keys and a few other fields
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FindAllInBenchmark
+{
+	public static final class Holder
+	{
+		public static final ConfigInfo<Integer> KEY_NUMBER_0 = new BaseConfigInfo<>(0, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_1 = new BaseConfigInfo<>(1, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_2 = new BaseConfigInfo<>(2, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_3 = new BaseConfigInfo<>(3, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_4 = new BaseConfigInfo<>(4, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_5 = new BaseConfigInfo<>(5, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_6 = new BaseConfigInfo<>(6, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_7 = new BaseConfigInfo<>(7, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_8 = new BaseConfigInfo<>(8, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_9 = new BaseConfigInfo<>(9, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_10 = new BaseConfigInfo<>(10, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_11 = new BaseConfigInfo<>(11, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_12 = new BaseConfigInfo<>(12, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_13 = new BaseConfigInfo<>(13, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_14 = new BaseConfigInfo<>(14, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_15 = new BaseConfigInfo<>(15, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_16 = new BaseConfigInfo<>(16, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_17 = new BaseConfigInfo<>(17, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_18 = new BaseConfigInfo<>(18, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_19 = new BaseConfigInfo<>(19, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_20 = new BaseConfigInfo<>(20, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_21 = new BaseConfigInfo<>(21, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_22 = new BaseConfigInfo<>(22, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_23 = new BaseConfigInfo<>(23, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_24 = new BaseConfigInfo<>(24, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_25 = new BaseConfigInfo<>(25, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_26 = new BaseConfigInfo<>(26, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_27 = new BaseConfigInfo<>(27, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_28 = new BaseConfigInfo<>(28, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_29 = new BaseConfigInfo<>(29, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_30 = new BaseConfigInfo<>(30, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_31 = new BaseConfigInfo<>(31, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_32 = new BaseConfigInfo<>(32, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_33 = new BaseConfigInfo<>(33, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_34 = new BaseConfigInfo<>(34, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_35 = new BaseConfigInfo<>(35, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_36 = new BaseConfigInfo<>(36, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_37 = new BaseConfigInfo<>(37, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_38 = new BaseConfigInfo<>(38, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_39 = new BaseConfigInfo<>(39, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_40 = new BaseConfigInfo<>(40, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_41 = new BaseConfigInfo<>(41, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_42 = new BaseConfigInfo<>(42, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_43 = new BaseConfigInfo<>(43, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_44 = new BaseConfigInfo<>(44, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_45 = new BaseConfigInfo<>(45, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_46 = new BaseConfigInfo<>(46, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_47 = new BaseConfigInfo<>(47, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_48 = new BaseConfigInfo<>(48, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_49 = new BaseConfigInfo<>(49, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_50 = new BaseConfigInfo<>(50, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_51 = new BaseConfigInfo<>(51, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_52 = new BaseConfigInfo<>(52, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_53 = new BaseConfigInfo<>(53, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_54 = new BaseConfigInfo<>(54, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_55 = new BaseConfigInfo<>(55, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_56 = new BaseConfigInfo<>(56, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_57 = new BaseConfigInfo<>(57, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_58 = new BaseConfigInfo<>(58, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_59 = new BaseConfigInfo<>(59, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_60 = new BaseConfigInfo<>(60, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_61 = new BaseConfigInfo<>(61, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_62 = new BaseConfigInfo<>(62, Integer.TYPE);
+		public static final ConfigInfo<Integer> KEY_NUMBER_63 = new BaseConfigInfo<>(63, Integer.TYPE);
+
+		public static final int NOT_A_KEY = 0;
+		static final ConfigInfo<Integer> PACKAGE_PRIVATE_KEY = new BaseConfigInfo<>(0, Integer.TYPE);
+	}
+
+	@Benchmark
+	public ConfigInfo[] findAllIn()
+	{
+		return ConfigInfo.findAllIn(Holder.class);
+	}
+}
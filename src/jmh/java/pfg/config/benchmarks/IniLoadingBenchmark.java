@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.ini4j.Ini;
+import org.ini4j.Profile.Section;
+import org.openjdk.jmh.annotations.*;
+
+import pfg.config.BaseConfigInfo;
+import pfg.config.Config;
+import pfg.config.ConfigInfo;
+
+/**
+ * Startup time of a Config on a 50k-line file, compared with the former ini4j loading path
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IniLoadingBenchmark
+{
+	private static final int LINES = 50000;
+	private static final int SECTIONS = 10;
+	private static final int KEYS = 1000;
+
+	private ConfigInfo<?>[] infos;
+	private File file;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		infos = new ConfigInfo<?>[KEYS];
+		for(int i = 0; i < KEYS; i++)
+			infos[i] = new BaseConfigInfo<>("key" + i, i, Integer.class);
+
+		file = File.createTempFile("benchmark", ".ini");
+		file.deleteOnExit();
+		try(PrintWriter writer = new PrintWriter(file, "UTF-8"))
+		{
+			for(int line = 0; line < LINES; line++)
+			{
+				if(line % (LINES / SECTIONS) == 0)
+					writer.println("[profile" + line / (LINES / SECTIONS) + "]");
+				else if(line % 5 == 0)
+					writer.println("# comment line number " + line);
+				else // half of the keys are unknown
+					writer.println("KEY" + (line % (2 * KEYS)) + " = " + line);
+			}
+		}
+	}
+
+	@Benchmark
+	public Config nativeReader()
+	{
+		return new Config(infos, false, file.getAbsolutePath(), "profile3", "profile7");
+	}
+
+	@Benchmark
+	public Map<ConfigInfo<?>, Object> ini4j() throws IOException
+	{
+		Map<String, ConfigInfo<?>> name2config = new HashMap<>();
+		for(ConfigInfo<?> info : infos)
+			name2config.put(info.toString(), info);
+		Map<ConfigInfo<?>, Object> values = new HashMap<>();
+		Ini inifile = new Ini(file);
+		for(String profile : new String[] {"profile3", "profile7"})
+		{
+			Section s = inifile.get(profile);
+			for(String key : s.keySet())
+			{
+				ConfigInfo<?> info = name2config.get(key.toLowerCase());
+				if(info == null)
+					info = name2config.get(ConfigInfo.toCamelCase(key));
+				if(info != null)
+					values.put(info, Integer.parseInt(s.get(key)));
+			}
+		}
+		return values;
+	}
+}
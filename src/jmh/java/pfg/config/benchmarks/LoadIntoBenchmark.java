@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import pfg.config.BaseConfigInfo;
+import pfg.config.Config;
+import pfg.config.ConfigInfo;
+import pfg.config.Configurable;
+
+/**
+ * Cost of {@link Config#loadInto(Object)} depending on the depth of the class hierarchy of the loaded object, each level declaring three fields
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoadIntoBenchmark
+{
+	public static class Level1 extends Object
+	{
+		@Configurable("int1")
+		int int1;
+		@Configurable("double1")
+		double double1;
+		@Configurable("string1")
+		String string1;
+	}
+
+	public static class Level2 extends Level1
+	{
+		@Configurable("int2")
+		int int2;
+		@Configurable("double2")
+		double double2;
+		@Configurable("string2")
+		String string2;
+	}
+
+	public static class Level3 extends Level2
+	{
+		@Configurable("int3")
+		int int3;
+		@Configurable("double3")
+		double double3;
+		@Configurable("string3")
+		String string3;
+	}
+
+	public static class Level4 extends Level3
+	{
+		@Configurable("int4")
+		int int4;
+		@Configurable("double4")
+		double double4;
+		@Configurable("string4")
+		String string4;
+	}
+
+	public static class Level5 extends Level4
+	{
+		@Configurable("int5")
+		int int5;
+		@Configurable("double5")
+		double double5;
+		@Configurable("string5")
+		String string5;
+	}
+
+	public static class Level6 extends Level5
+	{
+		@Configurable("int6")
+		int int6;
+		@Configurable("double6")
+		double double6;
+		@Configurable("string6")
+		String string6;
+	}
+
+	public static class Level7 extends Level6
+	{
+		@Configurable("int7")
+		int int7;
+		@Configurable("double7")
+		double double7;
+		@Configurable("string7")
+		String string7;
+	}
+
+	public static class Level8 extends Level7
+	{
+		@Configurable("int8")
+		int int8;
+		@Configurable("double8")
+		double double8;
+		@Configurable("string8")
+		String string8;
+	}
+
+	public static class Level9 extends Level8
+	{
+		@Configurable("int9")
+		int int9;
+		@Configurable("double9")
+		double double9;
+		@Configurable("string9")
+		String string9;
+	}
+
+	public static class Level10 extends Level9
+	{
+		@Configurable("int10")
+		int int10;
+		@Configurable("double10")
+		double double10;
+		@Configurable("string10")
+		String string10;
+	}
+
+	public static class Level11 extends Level10
+	{
+		@Configurable("int11")
+		int int11;
+		@Configurable("double11")
+		double double11;
+		@Configurable("string11")
+		String string11;
+	}
+
+	public static class Level12 extends Level11
+	{
+		@Configurable("int12")
+		int int12;
+		@Configurable("double12")
+		double double12;
+		@Configurable("string12")
+		String string12;
+	}
+
+	public static class Level13 extends Level12
+	{
+		@Configurable("int13")
+		int int13;
+		@Configurable("double13")
+		double double13;
+		@Configurable("string13")
+		String string13;
+	}
+
+	public static class Level14 extends Level13
+	{
+		@Configurable("int14")
+		int int14;
+		@Configurable("double14")
+		double double14;
+		@Configurable("string14")
+		String string14;
+	}
+
+	public static class Level15 extends Level14
+	{
+		@Configurable("int15")
+		int int15;
+		@Configurable("double15")
+		double double15;
+		@Configurable("string15")
+		String string15;
+	}
+
+	public static class Level16 extends Level15
+	{
+		@Configurable("int16")
+		int int16;
+		@Configurable("double16")
+		double double16;
+		@Configurable("string16")
+		String string16;
+	}
+
+	@Param({"1", "4", "16"})
+	public int depth;
+
+	private Config config;
+	private Object object;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException
+	{
+		ConfigInfo<?>[] infos = new ConfigInfo<?>[3 * 16];
+		for(int i = 1; i <= 16; i++)
+		{
+			infos[3 * i - 3] = new BaseConfigInfo<>("int" + i, i, Integer.TYPE);
+			infos[3 * i - 2] = new BaseConfigInfo<>("double" + i, 0.5 * i, Double.TYPE);
+			infos[3 * i - 1] = new BaseConfigInfo<>("string" + i, "value" + i, String.class);
+		}
+		config = new Config(infos, false);
+		object = Class.forName(LoadIntoBenchmark.class.getName() + "$Level" + depth).newInstance();
+	}
+
+	@Benchmark
+	public Object loadInto() throws ReflectiveOperationException
+	{
+		config.loadInto(object);
+		return object;
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config.benchmarks;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import pfg.config.BaseConfigInfo;
+import pfg.config.Config;
+import pfg.config.ConfigInfo;
+import pfg.config.DerivedConfigInfo;
+
+/**
+ * Cost of an override depending on the number of derived keys depending on the overridden key (0 being an override without derived keys),
+ * and of a view with an overridden value, see {@link Config#withOverrides(ConfigInfo, Object)}
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OverrideBenchmark
+{
+	private static final int KEYS = 100;
+
+	@Param({"0", "1", "100"})
+	public int derived;
+
+	private Config config;
+	private ConfigInfo<Integer>[] infos;
+	private ConfigInfo<?>[] all;
+	private HashMap<ConfigInfo, Object> batch;
+	private int counter;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup()
+	{
+		infos = new ConfigInfo[KEYS];
+		for(int i = 0; i < KEYS; i++)
+			infos[i] = new BaseConfigInfo<>("key" + i, i, Integer.TYPE);
+		all = new ConfigInfo<?>[KEYS + derived];
+		System.arraycopy(infos, 0, all, 0, KEYS);
+		for(int i = 0; i < derived; i++)
+		{
+			int offset = i;
+			all[KEYS + i] = new DerivedConfigInfo<>("derived" + i, 0, Integer.TYPE, c -> c.getIntValue(infos[0]) + offset);
+		}
+		config = new Config(all, false);
+		batch = new HashMap<>();
+	}
+
+	@Benchmark
+	public void override()
+	{
+		config.override(infos[0], counter++);
+	}
+
+	@Benchmark
+	public void overrideBatch()
+	{
+		counter++;
+		for(int i = 0; i < 10; i++)
+			batch.put(infos[i], counter + i);
+		config.override(batch);
+	}
+
+	@Benchmark
+	public void overrideTransaction()
+	{
+		counter++;
+		config.edit().set(infos[0], counter).set(infos[1], counter).commit();
+	}
+
+	@Benchmark
+	public Config withOverrides()
+	{
+		// a view for a request, whose derived values are derived again when read
+		Config view = config.withOverrides(infos[0], counter++);
+		for(int i = KEYS; i < all.length; i++)
+			view.getObject(all[i]);
+		return view;
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import pfg.config.BaseConfigInfo;
+import pfg.config.Config;
+import pfg.config.ConfigInfo;
+import pfg.config.ConfigInfoParser;
+import pfg.config.ConfigOptions;
+
+/**
+ * Startup time of a Config whose values are expensive to parse (4x4 matrices), with 1 to N parsing threads.
+ * The main method runs it for 1, 2, 4... up to the number of cores, 0 being the parsing by the constructing thread.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelParsingBenchmark
+{
+	private static final int KEYS = 5000;
+
+	@Param({"0", "1", "2", "4", "8"})
+	public int threads;
+
+	private ConfigInfo<?>[] infos;
+	private Map<Class<?>, ConfigInfoParser> parsers;
+	private File file;
+	private ForkJoinPool pool;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		infos = new ConfigInfo<?>[KEYS];
+		for(int i = 0; i < KEYS; i++)
+			infos[i] = new BaseConfigInfo<>("matrix" + i, new double[16][], double[][].class);
+		parsers = new HashMap<>();
+		parsers.put(double[][].class, ParallelParsingBenchmark::parseMatrix);
+
+		file = File.createTempFile("benchmark", ".ini");
+		file.deleteOnExit();
+		try(PrintWriter writer = new PrintWriter(file, "UTF-8"))
+		{
+			writer.println("[default]");
+			for(int i = 0; i < KEYS; i++)
+			{
+				StringBuilder matrix = new StringBuilder();
+				for(int j = 0; j < 16; j++)
+					matrix.append(j % 4 == 0 && j > 0 ? ";" : j > 0 ? "," : "").append(Math.sqrt(i + j));
+				writer.println("matrix" + i + " = " + matrix);
+			}
+		}
+		if(threads > 0)
+			pool = new ForkJoinPool(threads);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		if(pool != null)
+			pool.shutdown();
+	}
+
+	private static double[][] parseMatrix(String value)
+	{
+		String[] rows = value.split(";");
+		double[][] matrix = new double[rows.length][];
+		for(int i = 0; i < rows.length; i++)
+		{
+			String[] cells = rows[i].split(",");
+			matrix[i] = new double[cells.length];
+			for(int j = 0; j < cells.length; j++)
+				matrix[i][j] = Double.parseDouble(cells[j].trim());
+		}
+		return matrix;
+	}
+
+	@Benchmark
+	public Config load()
+	{
+		return new Config(infos, false, file.getAbsolutePath(), parsers, new ConfigOptions().parallel(pool), "default");
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		int cores = Runtime.getRuntime().availableProcessors();
+		StringBuilder counts = new StringBuilder("0");
+		for(int threads = 1; threads <= cores; threads *= 2)
+			counts.append(',').append(threads);
+		new Runner(new OptionsBuilder().include(ParallelParsingBenchmark.class.getSimpleName()).param("threads", counts.toString().split(",")).build()).run();
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import pfg.config.BaseConfigInfo;
+import pfg.config.Config;
+import pfg.config.ConfigInfo;
+import pfg.config.ConfigOptions;
+import pfg.config.ConfigSource;
+import pfg.config.DerivedConfigInfo;
+
+/**
+ * Read latency of the typed getters, boxed and unboxed, on the keys of ConfigInfoExample, with values parsed when loaded or when first read
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypedGetterBenchmark
+{
+	public static final ConfigInfo<Integer> SOME_INTEGER_VALUE = new BaseConfigInfo<>(1337, Integer.TYPE);
+	public static final ConfigInfo<Double> SOME_DOUBLE_VALUE = new BaseConfigInfo<>(255.42, Double.TYPE);
+	public static final ConfigInfo<String> SOME_STRING_VALUE = new BaseConfigInfo<>("default-value", String.class);
+	public static final ConfigInfo<Boolean> SOME_BOOLEAN_VALUE = new BaseConfigInfo<>(false, Boolean.TYPE);
+	public static final ConfigInfo<Boolean> IS_ODD = new DerivedConfigInfo<>(false, Boolean.TYPE, config -> config.get(SOME_INTEGER_VALUE) % 2 == 1);
+
+	/**
+	 * Are the values parsed when first read? They are then unboxed once parsed
+	 */
+	@Param({"false", "true"})
+	public boolean lazy;
+
+	private Config config;
+
+	@Setup
+	public void setup()
+	{
+		ConfigOptions options = new ConfigOptions().lazy(lazy).sources(ConfigSource.arguments("SOME_INTEGER_VALUE=18754", "SOME_DOUBLE_VALUE=255.42"));
+		config = new Config(ConfigInfo.findAllIn(TypedGetterBenchmark.class), false, null, options);
+	}
+
+	@Benchmark
+	public Integer get()
+	{
+		return config.get(SOME_INTEGER_VALUE);
+	}
+
+	@Benchmark
+	public Integer getInt()
+	{
+		return config.getInt(SOME_INTEGER_VALUE);
+	}
+
+	@Benchmark
+	public int getIntValue()
+	{
+		return config.getIntValue(SOME_INTEGER_VALUE);
+	}
+
+	@Benchmark
+	public Double getDouble()
+	{
+		return config.getDouble(SOME_DOUBLE_VALUE);
+	}
+
+	@Benchmark
+	public double getDoubleValue()
+	{
+		return config.getDoubleValue(SOME_DOUBLE_VALUE);
+	}
+
+	@Benchmark
+	public String getString()
+	{
+		return config.getString(SOME_STRING_VALUE);
+	}
+
+	@Benchmark
+	public Boolean getDerived()
+	{
+		return config.get(IS_ODD);
+	}
+}
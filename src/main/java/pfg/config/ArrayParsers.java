@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+/**
+ * Parsers of the int[], long[], double[] and float[] values : the elements are separated by commas, with optional spaces around them,
+ * and an empty value is an empty array. The elements are parsed in place, into an array allocated once, without splitting the value.
+ * The usual decimal numbers are converted without building any String, the others (exponents, many digits, NaN...) go through
+ * {@link Double#parseDouble(String)} and {@link Float#parseFloat(String)}.
+ *
+ */
+final class ArrayParsers
+{
+	/**
+	 * The powers of ten exactly representable as double, and as float for the ones needed by the floats of 7 digits
+	 */
+	private static final double[] DOUBLE_POWERS = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+	private static final float[] FLOAT_POWERS = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, };
+
+	private ArrayParsers()
+	{}
+
+	static int[] parseInts(String value)
+	{
+		int[] array = new int[count(value)];
+		int start = 0;
+		for(int i = 0; i < array.length; i++)
+		{
+			int end = endOf(value, start);
+			array[i] = (int) parseLong(value, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+			start = end + 1;
+		}
+		return array;
+	}
+
+	static long[] parseLongs(String value)
+	{
+		long[] array = new long[count(value)];
+		int start = 0;
+		for(int i = 0; i < array.length; i++)
+		{
+			int end = endOf(value, start);
+			array[i] = parseLong(value, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+			start = end + 1;
+		}
+		return array;
+	}
+
+	static double[] parseDoubles(String value)
+	{
+		double[] array = new double[count(value)];
+		int start = 0;
+		for(int i = 0; i < array.length; i++)
+		{
+			int end = endOf(value, start);
+			array[i] = parseDouble(value, start, end);
+			start = end + 1;
+		}
+		return array;
+	}
+
+	static float[] parseFloats(String value)
+	{
+		float[] array = new float[count(value)];
+		int start = 0;
+		for(int i = 0; i < array.length; i++)
+		{
+			int end = endOf(value, start);
+			array[i] = parseFloat(value, start, end);
+			start = end + 1;
+		}
+		return array;
+	}
+
+	/**
+	 * Number of elements of a value
+	 * @param value
+	 * @return
+	 */
+	private static int count(String value)
+	{
+		if(trimStart(value, 0, value.length()) == value.length())
+			return 0;
+		int count = 1;
+		for(int i = 0; i < value.length(); i++)
+			if(value.charAt(i) == ',')
+				count++;
+		return count;
+	}
+
+	/**
+	 * Index of the end of the element starting at an index
+	 * @param value
+	 * @param start
+	 * @return
+	 */
+	private static int endOf(String value, int start)
+	{
+		int end = value.indexOf(',', start);
+		return end < 0 ? value.length() : end;
+	}
+
+	private static int trimStart(String value, int start, int end)
+	{
+		while(start < end && Character.isWhitespace(value.charAt(start)))
+			start++;
+		return start;
+	}
+
+	private static int trimEnd(String value, int start, int end)
+	{
+		while(end > start && Character.isWhitespace(value.charAt(end - 1)))
+			end--;
+		return end;
+	}
+
+	private static NumberFormatException error(String value, int start, int end)
+	{
+		return new NumberFormatException("For input string: \"" + value.substring(start, end) + "\" in \"" + value + "\"");
+	}
+
+	/**
+	 * Parse a decimal integer between two bounds
+	 * @param value
+	 * @param start
+	 * @param end
+	 * @param min
+	 * @param max
+	 * @return
+	 * @throws NumberFormatException
+	 * 		if the element isn't an integer between the bounds
+	 */
+	private static long parseLong(String value, int start, int end, long min, long max)
+	{
+		start = trimStart(value, start, end);
+		end = trimEnd(value, start, end);
+		int i = start;
+		boolean negative = false;
+		if(i < end && (value.charAt(i) == '-' || value.charAt(i) == '+'))
+			negative = value.charAt(i++) == '-';
+		if(i == end)
+			throw error(value, start, end);
+		// accumulated negatively, as the negative range is larger
+		long limit = negative ? min : -max;
+		long result = 0;
+		for(; i < end; i++)
+		{
+			int digit = value.charAt(i) - '0';
+			if(digit < 0 || digit > 9 || result < (limit + digit) / 10)
+				throw error(value, start, end);
+			result = result * 10 - digit;
+		}
+		return negative ? result : -result;
+	}
+
+	private static double parseDouble(String value, int start, int end)
+	{
+		start = trimStart(value, start, end);
+		end = trimEnd(value, start, end);
+		int i = start;
+		boolean negative = false;
+		if(i < end && (value.charAt(i) == '-' || value.charAt(i) == '+'))
+			negative = value.charAt(i++) == '-';
+		long mantissa = 0;
+		int digits = 0;
+		int scale = -1;
+		for(; i < end; i++)
+		{
+			char c = value.charAt(i);
+			if(c == '.' && scale < 0)
+				scale = 0;
+			else if(c >= '0' && c <= '9' && digits < 15)
+			{
+				mantissa = mantissa * 10 + (c - '0');
+				digits++;
+				if(scale >= 0)
+					scale++;
+			}
+			else
+				break;
+		}
+		// the mantissa and the power of ten are exact, so their quotient is correctly rounded
+		if(i == end && digits > 0)
+		{
+			double result = mantissa / DOUBLE_POWERS[Math.max(scale, 0)];
+			return negative ? -result : result;
+		}
+		if(start == end)
+			throw error(value, start, end);
+		return Double.parseDouble(value.substring(start, end));
+	}
+
+	private static float parseFloat(String value, int start, int end)
+	{
+		start = trimStart(value, start, end);
+		end = trimEnd(value, start, end);
+		int i = start;
+		boolean negative = false;
+		if(i < end && (value.charAt(i) == '-' || value.charAt(i) == '+'))
+			negative = value.charAt(i++) == '-';
+		int mantissa = 0;
+		int digits = 0;
+		int scale = -1;
+		for(; i < end; i++)
+		{
+			char c = value.charAt(i);
+			if(c == '.' && scale < 0)
+				scale = 0;
+			else if(c >= '0' && c <= '9' && digits < 7)
+			{
+				mantissa = mantissa * 10 + (c - '0');
+				digits++;
+				if(scale >= 0)
+					scale++;
+			}
+			else
+				break;
+		}
+		// the mantissa and the power of ten are exact, so their quotient is correctly rounded
+		if(i == end && digits > 0)
+		{
+			float result = mantissa / FLOAT_POWERS[Math.max(scale, 0)];
+			return negative ? -result : result;
+		}
+		if(start == end)
+			throw error(value, start, end);
+		return Float.parseFloat(value.substring(start, end));
+	}
+}
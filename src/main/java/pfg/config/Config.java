@@ -9,11 +9,29 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Field;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
-
-import org.ini4j.Ini;
-import org.ini4j.Profile.Section;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * The configuration values are located in two places.
@@ -55,6 +73,11 @@ public class Config
 
 			put(Character.class, str -> str.charAt(0));
 			put(Character.TYPE, str -> str.charAt(0));
+
+			put(int[].class, ArrayParsers::parseInts);
+			put(long[].class, ArrayParsers::parseLongs);
+			put(double[].class, ArrayParsers::parseDoubles);
+			put(float[].class, ArrayParsers::parseFloats);
 		}
 	};
 
@@ -64,9 +87,48 @@ public class Config
 	private final Map<Class<?>, ConfigInfoParser> parsers;
 
 	/**
-	 * Cached configurable values
+	 * Slot index of the registered ConfigInfo
+	 */
+	private final ConfigIndex index;
+
+	/**
+	 * Cached configurable values, addressed by slot.
+	 * In concurrent mode, this table is never modified once published: the writers publish a modified copy instead.
+	 * Only the lazy values are unboxed in place by their first readers, see {@link ValueTable#get(int)}.
+	 */
+	private volatile ValueTable configValues;
+
+	/**
+	 * Table being modified by the current writer, null if no value is being modified. The derivers, that run in the writer thread
+	 * (or in the threads of the derivation executor), read their values from it. The readers only check the other write state when it isn't null
+	 */
+	private volatile ValueTable pendingValues;
+
+	/**
+	 * Thread currently modifying the values, if any
+	 */
+	private volatile Thread writer;
+
+	/**
+	 * Dependencies of the derived values
+	 */
+	private final DerivationGraph derivationGraph;
+
+	/**
+	 * Lock held by the writers
+	 */
+	private final Object writeLock = new Object();
+
+	/**
+	 * Should the modifications be applied to a copy of the values (copy-on-write)?
 	 */
-	private HashMap<ConfigInfo, Object> configValues = new HashMap<ConfigInfo, Object>();
+	private boolean concurrent;
+
+	/**
+	 * Are the current values shared with a view (see {@link #withOverrides(Map)})? The next modification is then applied to a copy of the values,
+	 * even if the concurrent mode is disabled. Guarded by the write lock
+	 */
+	private boolean shared;
 
 	/**
 	 * Cached String -> ConfigInfo map to link a name to the given ConfigInfo (that holds this name)<br/>
@@ -75,9 +137,77 @@ public class Config
 	private Map<String, ConfigInfo<?>> name2config = new HashMap<>();
 
 	/**
-	 * List of all loaded ConfigInfo
+	 * Field setters used by {@link #loadInto(Object)}, for each class
+	 */
+	private final Map<Class<?>, FieldBinder> binders;
+
+	/**
+	 * Subscriptions to the changes of each slot
+	 */
+	private volatile ConfigSubscription[][] subscriptions;
+
+	/**
+	 * Lock held while modifying the subscriptions
+	 */
+	private final Object subscriptionLock = new Object();
+
+	/**
+	 * Executor deriving the independent derived values concurrently, or null
 	 */
-	private List<ConfigInfo<?>> allConfigInfo = new ArrayList<>();
+	private Executor derivationExecutor;
+
+	/**
+	 * Executor running the change notifications
+	 */
+	private volatile Executor notificationExecutor = Runnable::run;
+
+	/**
+	 * Config file and profiles, kept for {@link #reload()}
+	 */
+	private final String configfile;
+	private final String[] profiles;
+
+	/**
+	 * Loading options of the config file
+	 */
+	private final ConfigOptions options;
+
+	/**
+	 * Lookup of the keys of the config file, in every accepted spelling
+	 */
+	private final KeyIndex keyIndex;
+
+	/**
+	 * Values read from the config file (or default values) when it was last read, in slot order
+	 */
+	private Object[] fileValues;
+
+	/**
+	 * Raw values of the config file that gave the {@link #fileValues}, in slot order (null for the values that weren't read from the file)
+	 */
+	private String[] fileRawValues;
+
+	/**
+	 * Values of the config file that couldn't be parsed when it was last read, see {@link #validateAll()}
+	 */
+	private List<String> fileErrors = Collections.emptyList();
+
+	/**
+	 * Sources layered over the config file, by increasing precedence, with their raw values (in slot order) and versions when they were last read
+	 */
+	private final ConfigSource[] sources;
+	private final String[][] sourceValues;
+	private final long[] sourceVersions;
+
+	/**
+	 * Usage and timing metrics, or null if they are disabled
+	 */
+	private final ConfigMetrics metrics;
+
+	/**
+	 * Layout of the exported values, see {@link #getLayout()}
+	 */
+	private volatile ConfigLayout layout;
 
 	/**
 	 * Should the library outputs debug information?
@@ -118,7 +248,17 @@ public class Config
 
 	public Config(ConfigInfo[] allConfigInfo, boolean verbose, String configfile, String... profiles)
 	{
-		this(allConfigInfo, verbose, configfile, DEFAULT_PARSERS, profiles);
+		this(allConfigInfo, verbose, configfile, DEFAULT_PARSERS, new ConfigOptions(), profiles);
+	}
+
+	/**
+	 * Constructor of Config with a config file and loading options
+	 * @param options options controlling how the config file is loaded
+	 * @see Config#Config(ConfigInfo[], boolean, String, String...)
+	 */
+	public Config(ConfigInfo[] allConfigInfo, boolean verbose, String configfile, ConfigOptions options, String... profiles)
+	{
+		this(allConfigInfo, verbose, configfile, DEFAULT_PARSERS, options, profiles);
 	}
 
 	/**
@@ -127,18 +267,80 @@ public class Config
 	 * @see Config#Config(ConfigInfo[], boolean, String, String...)
 	 */
 	public Config(ConfigInfo[] allConfigInfo, boolean verbose, String configfile, Map<Class<?>, ConfigInfoParser> parsers, String... profiles)
+	{
+		this(allConfigInfo, verbose, configfile, parsers, new ConfigOptions(), profiles);
+	}
+
+	/**
+	 * Constructor of Config with a config file, a list of parsers and loading options
+	 * @param parsers list of parsers used by the library
+	 * @param options options controlling how the config file is loaded
+	 * @see Config#Config(ConfigInfo[], boolean, String, String...)
+	 */
+	public Config(ConfigInfo[] allConfigInfo, boolean verbose, String configfile, Map<Class<?>, ConfigInfoParser> parsers, ConfigOptions options, String... profiles)
 	{
 		this.parsers = parsers;
+		this.options = options;
+		this.derivationExecutor = options.derivationExecutor;
+		this.index = new ConfigIndex(allConfigInfo);
+		this.keyIndex = new KeyIndex(index);
+		this.derivationGraph = new DerivationGraph(index);
+		this.metrics = options.metrics ? new ConfigMetrics(index) : null;
+		this.binders = new ConcurrentHashMap<>();
+		this.sources = options.sources.clone();
+		this.sourceValues = new String[sources.length][];
+		this.sourceVersions = new long[sources.length];
+		Arrays.fill(sourceVersions, ConfigSource.UNKNOWN_VERSION);
+		this.subscriptions = new ConfigSubscription[index.size()][];
+		ValueTable values = new ValueTable(index);
 
-		for(ConfigInfo info : allConfigInfo) {
-			this.allConfigInfo.add(info);
+		for(ConfigInfo<?> info : index.infos) {
 			this.name2config.put(info.toString(), info);
+			// the default values are overridden by the config file, if any
+			values.set(index.slotOf(info), info.getDefaultValue());
 		}
+		this.configValues = values;
 
 		this.verbose = verbose;
+		this.configfile = configfile;
+		this.profiles = profiles;
+		this.fileValues = values.objects.clone();
+		this.fileRawValues = new String[index.size()];
 		
-		if(configfile != null)
-			readConfigFile(configfile, profiles);
+		if(configfile != null || sources.length > 0)
+		{
+			String[] rawValues = new String[index.size()];
+			List<String> errors = new ArrayList<>();
+			long start = metrics != null ? System.nanoTime() : 0;
+			// the snapshots only hold the values of the config file
+			Object[] fileValues = options.snapshot != null && sources.length == 0 ? readSnapshot(options.snapshot, configfile, profiles, rawValues) : null;
+			if(fileValues == null)
+				fileValues = options.cached && !options.lazy && sources.length == 0 ? readCachedConfigFile(configfile, profiles, rawValues, errors) : readConfigFile(configfile, profiles, rawValues, errors);
+			if(metrics != null && fileValues != null)
+				metrics.loaded(System.nanoTime() - start);
+			if(fileValues != null)
+			{
+				this.fileValues = fileValues;
+				this.fileRawValues = rawValues;
+				this.fileErrors = errors;
+				for(int slot = 0; slot < index.size(); slot++)
+					values.set(slot, fileValues[slot]);
+
+				// parsing finished, derive derivable parameters, as a write so that the derivers read the values being derived
+				synchronized(writeLock)
+				{
+					beginWrite();
+					try
+					{
+						updateDerivedInfo(null);
+					}
+					finally
+					{
+						endWrite();
+					}
+				}
+			}
+		}
 		
 		boolean overloaded = completeConfig();
 		if(verbose && overloaded)
@@ -146,239 +348,839 @@ public class Config
 	}
 	
 	/**
-	 * Put the content of the config file into the HashMap
+	 * Constructor of the configs with overrides, see {@link ConfigOverlay}. They share the keys, the parsers, the options and the file values of their parent
+	 * @param parent
+	 * @param values
+	 * 		the values of the view
+	 */
+	Config(Config parent, ValueTable values)
+	{
+		this.parsers = parent.parsers;
+		this.options = parent.options;
+		this.index = parent.index;
+		this.keyIndex = parent.keyIndex;
+		this.derivationGraph = parent.derivationGraph;
+		this.metrics = parent.metrics;
+		this.binders = parent.binders;
+		this.sources = parent.sources;
+		this.sourceValues = parent.sourceValues;
+		this.sourceVersions = parent.sourceVersions;
+		this.name2config = parent.name2config;
+		this.verbose = parent.verbose;
+		this.configfile = parent.configfile;
+		this.profiles = parent.profiles;
+		this.configValues = values;
+		synchronized(parent.writeLock)
+		{
+			this.fileValues = parent.fileValues;
+			this.fileRawValues = parent.fileRawValues;
+			this.fileErrors = parent.fileErrors;
+		}
+	}
+
+	/**
+	 * Read the values of the config file and of the sources
 	 * @param configfile
+	 * @param profiles
+	 * @param loadedRawValues
+	 * 		filled with the raw values that gave the values of the file, in slot order
+	 * @param errors
+	 * 		receives a description of the values that couldn't be parsed
+	 * @return
+	 * 		the values of the file, in slot order, with the default values for the keys absent from the file. Null if the file couldn't be read.
+	 * 		In lazy mode, the values to parse are {@link LazyValue}
 	 */
-	private void readConfigFile(String configfile, String[] profiles)
+	private Object[] readConfigFile(String configfile, String[] profiles, String[] loadedRawValues, List<String> errors)
 	{
-		try
+		if(configfile != null && (profiles == null || profiles.length == 0))
+			throw new IllegalArgumentException("Please provide at least one profile !");
+
+		// raw values of each profile, in slot order
+		String[] fileProfiles = configfile != null ? profiles : new String[0];
+		String[][] rawValues = new String[fileProfiles.length][];
+		List<String> sections = Collections.emptyList();
+		if(configfile != null)
 		{
-			InputStream is = getClass().getResourceAsStream(configfile);
-			if(is != null)
+			try
 			{
-				if(verbose)
-					System.out.println("Loading config file : "+getClass().getResource(configfile));
+				Path path = options.memoryMapped ? pathOf(configfile) : null;
+				if(path != null && Files.isRegularFile(path))
+					sections = readMappedFile(path, profiles, rawValues);
+				else
+					sections = readStream(configfile, profiles, rawValues);
 			}
-			else
+			catch(IOException e)
 			{
-				is = new FileInputStream(new File(configfile));
 				if(verbose)
-					System.out.println("Loading config file : "+System.getProperty("user.dir")+"/"+configfile);
+					System.err.println("Configuration loading error from " + System.getProperty("user.dir") + " : " + e.getMessage()+(sources.length == 0 ? ". Default values loaded instead." : "."));
+				if(sources.length == 0)
+					return null;
+				fileProfiles = new String[0];
 			}
-			Ini inifile = new Ini(is);
-			if(profiles != null && profiles.length > 0)
+		}
+
+		// the raw values by increasing precedence: the profiles, then the sources
+		String[][] layers = new String[fileProfiles.length + sources.length][];
+		for(int i = 0; i < fileProfiles.length; i++)
+			layers[i] = rawValues[Arrays.asList(fileProfiles).indexOf(fileProfiles[i])];
+		System.arraycopy(readSources(), 0, layers, fileProfiles.length, sources.length);
+
+		Object[] fileValues = new Object[index.size()];
+		for(int slot = 0; slot < index.size(); slot++)
+			fileValues[slot] = index.infos[slot].getDefaultValue();
+		boolean[] loaded = new boolean[index.size()];
+		for(int layer = 0; layer < layers.length; layer++)
+		{
+			String[] s = layers[layer];
+			if(s == null)
 			{
-				for(String profile : profiles)
-				{
-					Section s = inifile.get(profile);
-					if(s == null)
-					{
-						if(verbose)
-							System.err.println("Unknown config profile : "+profile+". Possible values are : "+inifile.keySet());
-						continue;
-					}
+				if(verbose && layer < fileProfiles.length)
+					System.err.println("Unknown config profile : "+fileProfiles[layer]+". Possible values are : "+sections);
+				continue;
+			}
 
-					for(String key : s.keySet())
-					{
-						ConfigInfo<?> info = name2config.get(key.toLowerCase());
-						if(info == null) {
-							// try reformatting to camel case
-							String camelCaseVersion = ConfigInfo.toCamelCase(key);
-							info = name2config.get(camelCaseVersion);
-							if(info == null) {
-								if(verbose) {
-									System.err.println("Unknown key : "+key+", also tried "+camelCaseVersion);
-								}
-								continue;
-							}
-						}
-						if(info instanceof DerivedConfigInfo) { // DerivedConfigInfo values are not stored inside the configuration file
-							continue;
-						}
-						ConfigInfoParser<?> parser = findParser(info.getTypeClass());
-						if (parser == null) // if there is no parser, store the value as a String
+			for(int slot = 0; slot < index.size(); slot++)
+			{
+				if(s[slot] == null)
+					continue;
+				ConfigInfo<?> info = index.infos[slot];
+				ConfigInfoParser<?> parser = findParser(info.getTypeClass());
+				if (parser == null) // if there is no parser, store the value as a String
+				{
+					fileValues[slot] = s[slot];
+					loadedRawValues[slot] = s[slot];
+					loaded[slot] = true;
+				}
+				else if(options.lazy || options.executor != null) // parsed when first read, or in parallel, see below
+					continue;
+				else // otherwise, parse the value
+				{
+					long start = metrics != null ? System.nanoTime() : 0;
+					try {
+						fileValues[slot] = parser.parse(s[slot]);
+						loadedRawValues[slot] = s[slot];
+						loaded[slot] = true;
+						if(metrics != null)
+							metrics.parsed(System.nanoTime() - start);
+					} catch (IllegalArgumentException exception) {
+						if(metrics != null)
 						{
-							configValues.put(info, s.get(key));
+							metrics.parsed(System.nanoTime() - start);
+							metrics.parseFailed();
 						}
-						else // otherwise, parse the value
-						{
-							try {
-								configValues.put(info, parser.parse(s.get(key)));
-							} catch (IllegalArgumentException exception) {
-								if(verbose) {
-									System.err.print("Failed to load "+info+" due to: "+exception.getClass().getCanonicalName()+": "+exception.getMessage()+".");
-									if( ! configValues.containsKey(info)) {
-										System.err.println(" No already existing key, loading default value ("+info.getDefaultValue()+")");
-										configValues.put(info, info.getDefaultValue());
-									}
-								}
-								exception.printStackTrace();
+						if(verbose) {
+							System.err.print("Failed to load "+info+" due to: "+exception.getClass().getCanonicalName()+": "+exception.getMessage()+".");
+							if( ! loaded[slot]) {
+								System.err.println(" No already existing key, loading default value ("+info.getDefaultValue()+")");
 							}
 						}
+						errors.add(parseError(info, s[slot], exception));
+						exception.printStackTrace();
 					}
-
 				}
-
-				// parsing finished, derive derivable parameters
-				updateDerivedInfo();
 			}
-			else
+		}
+
+		if(options.lazy || options.executor != null)
+		{
+			LazyValue[] parallelValues = new LazyValue[index.size()];
+			for(int slot = 0; slot < index.size(); slot++)
 			{
-				throw new IllegalArgumentException("Please provide at least one profile !");
+				ConfigInfo<?> info = index.infos[slot];
+				ConfigInfoParser<?> parser = findParser(info.getTypeClass());
+				if(parser == null)
+					continue;
+				// the raw values that may give the value, from the last source or profile to the first one
+				List<String> candidates = new ArrayList<>();
+				for(int i = layers.length - 1; i >= 0; i--)
+					if(layers[i] != null && layers[i][slot] != null)
+						candidates.add(layers[i][slot]);
+				if(candidates.isEmpty())
+					continue;
+				LazyValue value = new LazyValue(info, parser, candidates.toArray(new String[candidates.size()]), verbose, options.lazy, metrics);
+				if(options.lazy)
+					fileValues[slot] = value;
+				else
+					parallelValues[slot] = value;
 			}
+			if(!options.lazy)
+				parseInParallel(parallelValues, fileValues, loadedRawValues, errors);
 		}
-		catch(IOException e)
+		return fileValues;
+	}
+
+	/**
+	 * Read the sources whose version changed since they were last read. Must be called by the constructor or with the write lock held
+	 * @return
+	 * 		the raw values of each source, in slot order (null for the sources that couldn't be read)
+	 */
+	private String[][] readSources()
+	{
+		for(int i = 0; i < sources.length; i++)
 		{
-			if(verbose)
-				System.err.println("Configuration loading error from " + System.getProperty("user.dir") + " : " + e.getMessage()+". Default values loaded instead.");
+			long version;
+			try
+			{
+				version = sources[i].version();
+			}
+			catch(IOException e)
+			{
+				version = ConfigSource.UNKNOWN_VERSION;
+			}
+			if(version != ConfigSource.UNKNOWN_VERSION && version == sourceVersions[i] && sourceValues[i] != null)
+				continue; // unchanged
+			String[] values = new String[index.size()];
+			try
+			{
+				sources[i].read((key, value) -> storeRawValue(values, sourceKey(key), value));
+				sourceValues[i] = values;
+				sourceVersions[i] = version;
+			}
+			catch(IOException e)
+			{
+				if(verbose)
+					System.err.println("Configuration source loading error : " + e.getMessage());
+				sourceValues[i] = null;
+				sourceVersions[i] = ConfigSource.UNKNOWN_VERSION;
+			}
 		}
+		return sourceValues.clone();
 	}
 
 	/**
-	 * Tries to look for a parser suitable for the given class
-	 * @param typeClass
-	 * 		The type class the parser must be able to parse
+	 * Find the ConfigInfo of a key of a source
+	 * @param key
 	 * @return
-	 * 		A suitable parser, or null if none found
+	 * 		the ConfigInfo, or null if the key is unknown
 	 */
-	private ConfigInfoParser<?> findParser(Class<?> typeClass)
+	private ConfigInfo<?> sourceKey(String key)
 	{
-		return (ConfigInfoParser<?>) parsers.get(typeClass);
+		int slot = keyIndex.find(key, 0, key.length());
+		if(slot >= 0)
+			return index.infos[slot];
+		if(slot == KeyIndex.NOT_ASCII || verbose)
+			return findConfigInfo(key); // prints the spellings that were tried
+		return null;
 	}
 
 	/**
-	 * Loads config elements marked by {@link Configurable} into the given object using reflection.
-	 * @param obj the object to load the config into
+	 * Parse some values with the executor of the options. The errors are then printed and reported in slot order, whatever the order of the parsing
+	 * @param values
+	 * 		the values to parse, in slot order (null for the slots already loaded)
+	 * @param fileValues
+	 * 		receives the parsed values
+	 * @param loadedRawValues
+	 * 		receives the raw values that gave the parsed values
+	 * @param errors
+	 * 		receives a description of the values that couldn't be parsed
 	 */
-	public void loadInto(Object obj) throws ReflectiveOperationException {
-		loadInto(obj, obj.getClass());
-	}
+	private void parseInParallel(LazyValue[] values, Object[] fileValues, String[] loadedRawValues, List<String> errors)
+	{
+		int[] slots = new int[values.length];
+		int count = 0;
+		for(int slot = 0; slot < values.length; slot++)
+			if(values[slot] != null)
+				slots[count++] = slot;
+		if(count == 0)
+			return;
 
-	private void loadInto(Object obj, Class<?> asClass) throws ReflectiveOperationException {
-		for(Field f : asClass.getDeclaredFields()) {
-			if(f.isAnnotationPresent(Configurable.class)) { // check if field is configurable
-				Configurable annotation = f.getAnnotation(Configurable.class);
-				String name = annotation.value();
-				if(name.isEmpty()) { // if no name has been given for the config key related to this field, use the field's name
-					name = f.getName();
-				}
-				ConfigInfo<?> configElement = name2config.get(name);
-				if(configElement == null)
-					throw new IllegalArgumentException("Config key '"+name+"' unknown (when loading config for field "+asClass.getCanonicalName()+"#"+f.getName());
-				Object value = get(configElement);
-				// set the field's value
-				if(!f.isAccessible()) {
-					f.setAccessible(true);
+		// a few tasks per thread, so that the threads stay busy even if some values take longer to parse
+		Executor executor = options.executor;
+		int parallelism = executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+		int tasks = Math.min(count, 4 * parallelism);
+		CountDownLatch done = new CountDownLatch(tasks);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		for(int task = 0; task < tasks; task++)
+		{
+			int from = (int) ((long) count * task / tasks);
+			int to = (int) ((long) count * (task + 1) / tasks);
+			executor.execute(() -> {
+				try {
+					for(int i = from; i < to; i++)
+						values[slots[i]].get();
+				} catch(Throwable t) {
+					failure.compareAndSet(null, t);
+				} finally {
+					done.countDown();
 				}
-				f.set(obj, value);
-				System.out.println("Set "+f+" to "+value);
-			}
+			});
 		}
-		if(asClass.getSuperclass() != null) {
-			// recursively go deeper inside the type hierarchy
-			loadInto(obj, asClass.getSuperclass());
+		try {
+			done.await();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while parsing the config file", e);
+		}
+		Throwable t = failure.get();
+		if(t instanceof RuntimeException)
+			throw (RuntimeException) t;
+		if(t instanceof Error)
+			throw (Error) t;
+		if(t != null)
+			throw new UndeclaredThrowableException(t);
+
+		for(int i = 0; i < count; i++)
+		{
+			LazyValue value = values[slots[i]];
+			value.printErrors(errors);
+			fileValues[slots[i]] = value.get();
+			loadedRawValues[slots[i]] = value.raw();
 		}
 	}
 
 	/**
-	 * Return an Object
-	 * @param nom
+	 * Describe a value of the config file that can't be parsed
+	 * @param info
+	 * @param raw
+	 * @param exception
 	 * @return
 	 */
-	public Object getObject(ConfigInfo nom)
+	static String parseError(ConfigInfo<?> info, String raw, IllegalArgumentException exception)
 	{
-		if(!allConfigInfo.contains(nom))
-			throw new IllegalArgumentException("Unknown configuration key : "+nom);
-		return configValues.get(nom);
+		return info+" = "+raw+" ("+exception.getClass().getCanonicalName()+": "+exception.getMessage()+")";
 	}
-	
+
 	/**
-	 * Get an integer
-	 * 
-	 * @param nom
-	 * @return
-	 * @throws NumberFormatException
+	 * Parse every value of the config file, including the values that aren't read yet in lazy mode (see {@link ConfigOptions#lazy(boolean)}),
+	 * and report the values that can't be parsed. Meant to check the config files in continuous integration.
+	 * @throws IllegalArgumentException
+	 * 		if some values of the selected profiles can't be parsed, with the list of these values
 	 */
-	public Integer getInt(ConfigInfo nom) throws NumberFormatException
+	public void validateAll()
 	{
-		try {
-			String s = getString(nom);
-			if(s != null)
-				return Integer.parseInt(s);
-		} catch(NumberFormatException e)
+		List<String> errors;
+		Object[] values;
+		synchronized(writeLock)
 		{
-			if(verbose)
-				System.err.println(e);
-			return Integer.parseInt(nom.getDefaultValue().toString());
+			errors = new ArrayList<>(fileErrors);
+			values = fileValues;
 		}
-		return null;
+		for(Object value : values)
+			if(value instanceof LazyValue)
+				((LazyValue) value).validate(errors);
+		if(!errors.isEmpty())
+			throw new IllegalArgumentException("Invalid configuration values : "+String.join(", ", errors));
 	}
 
 	/**
-	 * Get an object cast to a certain class
-	 * @param nom
-	 * @param clazz
+	 * Read the raw values of the config file through a stream
+	 * @param configfile
+	 * @param profiles
+	 * @param rawValues
+	 * 		filled with the raw values of each profile found in the file, in slot order
 	 * @return
+	 * 		the sections of the file
+	 * @throws IOException
 	 */
-	public <S> S get(ConfigInfo nom, Class<S> clazz)
+	private List<String> readStream(String configfile, String[] profiles, String[][] rawValues) throws IOException
 	{
-		if(!allConfigInfo.contains(nom))
-			throw new IllegalArgumentException("Unknown configuration key : "+nom);
-		return clazz.cast(configValues.get(nom));
+		InputStream is = getClass().getResourceAsStream(configfile);
+		try
+		{
+			if(is != null)
+			{
+				if(verbose)
+					System.out.println("Loading config file : "+getClass().getResource(configfile));
+			}
+			else
+			{
+				is = new FileInputStream(new File(configfile));
+				if(verbose)
+					System.out.println("Loading config file : "+System.getProperty("user.dir")+"/"+configfile);
+			}
+
+			IniReader inifile = new IniReader(new InputStreamReader(is, StandardCharsets.UTF_8), profiles, keyIndex);
+			inifile.read(rawValuesHandler(rawValues));
+			return inifile.sections();
+		}
+		finally
+		{
+			try
+			{
+				if(is != null)
+					is.close();
+			}
+			catch(IOException e)
+			{
+				// nothing to do
+			}
+		}
 	}
-	
+
 	/**
-	 * Get a short
-	 * 
-	 * @param nom
+	 * Read the raw values of the config file mapped in memory
+	 * @param path
+	 * @param profiles
+	 * @param rawValues
+	 * 		filled with the raw values of each profile found in the file, in slot order
 	 * @return
-	 * @throws NumberFormatException
+	 * 		the sections of the file
+	 * @throws IOException
 	 */
-	public Short getShort(ConfigInfo nom) throws NumberFormatException
+	private List<String> readMappedFile(Path path, String[] profiles, String[][] rawValues) throws IOException
 	{
-		try {
-			String s = getString(nom);
-			if(s != null)
-				return Short.parseShort(s);
-		} catch(NumberFormatException e)
+		if(verbose)
+			System.out.println("Loading config file : "+path.toAbsolutePath());
+		ByteBuffer buffer;
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
 		{
-			if(verbose)
-				System.err.println(e);
-			return Short.parseShort(nom.getDefaultValue().toString());
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
 		}
-		return null;
+
+		MappedIniReader inifile = new MappedIniReader(buffer, profiles, keyIndex);
+		inifile.read(rawValuesHandler(rawValues));
+		return inifile.sections();
 	}
 
 	/**
-	 * Get a byte
-	 * 
-	 * @param nom
+	 * Return a handler storing the raw values of the selected profiles
+	 * @param rawValues
+	 * 		filled with the raw values of each profile found in the file, in slot order
 	 * @return
-	 * @throws NumberFormatException
 	 */
-	public Byte getByte(ConfigInfo nom) throws NumberFormatException
+	private IniReader.Handler rawValuesHandler(String[][] rawValues)
 	{
-		try {
-			String s = getString(nom);
-			if(s != null)
-				return Byte.parseByte(s);
-		} catch(NumberFormatException e)
+		return new IniReader.Handler()
 		{
-			if(verbose)
-				System.err.println(e);
-			return Byte.parseByte(nom.getDefaultValue().toString());
-		}		return null;
+			@Override
+			public void section(int profile)
+			{
+				rawValues[profile] = new String[index.size()];
+			}
+
+			@Override
+			public void entry(int profile, int slot, String value)
+			{
+				storeRawValue(rawValues[profile], index.infos[slot], value);
+			}
+
+			@Override
+			public void unknownKey(CharSequence chars, int start, int end)
+			{
+				if(verbose)
+					findConfigInfo(chars.subSequence(start, end).toString()); // prints the spellings that were tried
+			}
+
+			@Override
+			public void unresolvedEntry(int profile, String key, String value)
+			{
+				storeRawValue(rawValues[profile], findConfigInfo(key), value);
+			}
+		};
 	}
 
 	/**
-	 * Get a long
-	 * 
+	 * Store the raw value of a key of the config file
+	 * @param rawValues
+	 * 		raw values of the profile, in slot order
+	 * @param info
+	 * 		the ConfigInfo of the key, or null if the key is unknown
+	 * @param value
+	 */
+	private void storeRawValue(String[] rawValues, ConfigInfo<?> info, String value)
+	{
+		// DerivedConfigInfo values are not stored inside the configuration file
+		if(info != null && !(info instanceof DerivedConfigInfo))
+			rawValues[index.slotOf(info)] = value;
+	}
+
+	/**
+	 * Return the path of the config file in the file system
+	 * @param configfile
+	 * @return
+	 * 		the path, or null if the config file is a resource that isn't in the file system (inside a jar for example)
+	 */
+	private Path pathOf(String configfile)
+	{
+		URL resource = getClass().getResource(configfile);
+		if(resource == null)
+			return Paths.get(configfile);
+		if(!"file".equals(resource.getProtocol()))
+			return null;
+		try
+		{
+			return Paths.get(resource.toURI());
+		}
+		catch(URISyntaxException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Read the values of the config file through the process-wide cache, see {@link ConfigOptions#cached(boolean)}
+	 * @param configfile
+	 * @param profiles
+	 * @param rawValues
+	 * 		filled with the raw values that gave the values of the file, in slot order
+	 * @param errors
+	 * 		receives a description of the values that couldn't be parsed
+	 * @return
+	 * 		the values of the file, in slot order, or null if the file couldn't be read
+	 */
+	private Object[] readCachedConfigFile(String configfile, String[] profiles, String[] rawValues, List<String> errors)
+	{
+		if(profiles == null || profiles.length == 0)
+			return readConfigFile(configfile, profiles, rawValues, errors);
+		FileStamp stamp;
+		try
+		{
+			stamp = stampOf(configfile);
+		}
+		catch(IOException e)
+		{
+			return readConfigFile(configfile, profiles, rawValues, errors);
+		}
+		Path path = pathOf(configfile);
+		ConfigCache.Key key = new ConfigCache.Key(path != null ? path.toAbsolutePath().toString() : configfile, profiles, index, parsers);
+		Object[] values = ConfigCache.get(key, stamp, rawValues, errors);
+		if(values != null)
+		{
+			if(verbose)
+				System.out.println("Loading cached config : "+configfile);
+			// the values absent from the file are the default values of these ConfigInfo
+			for(int slot = 0; slot < values.length; slot++)
+				if(rawValues[slot] == null)
+					values[slot] = index.infos[slot].getDefaultValue();
+			return values;
+		}
+		values = readConfigFile(configfile, profiles, rawValues, errors);
+		if(values != null)
+			ConfigCache.put(key, stamp, values, rawValues, errors);
+		return values;
+	}
+
+	/**
+	 * Read the values of the config file from a snapshot, see {@link #saveSnapshot(Path)}
+	 * @param snapshot
+	 * @param configfile
+	 * @param profiles
+	 * @param rawValues
+	 * 		filled with the raw values stored in the snapshot, in slot order
+	 * @return
+	 * 		the values, in slot order, or null if the snapshot is missing or outdated
+	 */
+	private Object[] readSnapshot(Path snapshot, String configfile, String[] profiles, String[] rawValues)
+	{
+		if(profiles == null || profiles.length == 0 || !Files.isRegularFile(snapshot))
+			return null;
+		try
+		{
+			Object[] values = ConfigSnapshot.read(snapshot, index, profiles, stampOf(configfile), parsers, rawValues);
+			if(verbose)
+				System.out.println(values != null ? "Loading config snapshot : "+snapshot.toAbsolutePath() : "Outdated config snapshot : "+snapshot.toAbsolutePath());
+			return values;
+		}
+		catch(IOException e)
+		{
+			if(verbose)
+				System.err.println("Config snapshot loading error : "+e.getMessage()+". Config file loaded instead.");
+			return null;
+		}
+	}
+
+	/**
+	 * Save the values read from the config file into a binary snapshot. Given with {@link ConfigOptions#snapshot(Path)},
+	 * the snapshot is then loaded instead of the config file, as long as the ConfigInfo, the profiles and the config file don't change.
+	 * The overridden values are not saved.
+	 * @param snapshot
+	 * @throws IOException
+	 * @throws IllegalArgumentException
+	 * 		if there is no config file
+	 */
+	public void saveSnapshot(Path snapshot) throws IOException
+	{
+		if(configfile == null)
+			throw new IllegalArgumentException("No config file to save");
+		if(sources.length > 0)
+			throw new IllegalStateException("The values of the config sources can't be saved in a snapshot");
+		Object[] values;
+		String[] rawValues;
+		synchronized(writeLock)
+		{
+			values = fileValues.clone();
+			rawValues = fileRawValues.clone();
+		}
+		for(int slot = 0; slot < values.length; slot++)
+			if(values[slot] instanceof LazyValue)
+			{
+				LazyValue lazy = (LazyValue) values[slot];
+				values[slot] = lazy.get();
+				rawValues[slot] = lazy.raw();
+			}
+		try(OutputStream out = Files.newOutputStream(snapshot))
+		{
+			ConfigSnapshot.write(out, index, profiles, stampOf(configfile), values, rawValues);
+		}
+	}
+
+	/**
+	 * Return a stamp of the config file, that changes when the file is modified
+	 * @param configfile
+	 * @return
+	 * 		the stamp, {@link FileStamp#NONE} if the file isn't in the file system
+	 * @throws IOException
+	 */
+	private FileStamp stampOf(String configfile) throws IOException
+	{
+		return FileStamp.of(pathOf(configfile));
+	}
+
+	/**
+	 * Find the ConfigInfo of a key of the config file
+	 * @param key
+	 * @return
+	 * 		the ConfigInfo, or null if the key is unknown
+	 */
+	private ConfigInfo<?> findConfigInfo(String key)
+	{
+		ConfigInfo<?> info = name2config.get(key.toLowerCase());
+		if(info == null) {
+			// try reformatting to camel case
+			String camelCaseVersion = ConfigInfo.toCamelCase(key);
+			info = name2config.get(camelCaseVersion);
+			if(info == null) // or the key may be written as the name itself
+				info = name2config.get(key);
+			if(info == null && verbose) {
+				System.err.println("Unknown key : "+key+", also tried "+camelCaseVersion);
+			}
+		}
+		return info;
+	}
+
+	/**
+	 * Read the config file again, and apply the values that changed in the file since it was last read.
+	 * The sources of the options are read again too, unless their version didn't change (see {@link ConfigOptions#sources(ConfigSource...)}).
+	 * The values overridden since then are kept, unless the file or the sources change them.
+	 * The new values are applied and published at once, with their derived values.
+	 * @return
+	 * 		the keys whose value changed, including the derived ones
+	 */
+	public Set<ConfigInfo<?>> reload()
+	{
+		if(configfile == null && sources.length == 0)
+			throw new IllegalArgumentException("No config file nor source to reload");
+		int[] changed;
+		synchronized(writeLock)
+		{
+			String[] rawValues = new String[index.size()];
+			List<String> errors = new ArrayList<>();
+			long start = metrics != null ? System.nanoTime() : 0;
+			Object[] newFileValues = readConfigFile(configfile, profiles, rawValues, errors);
+			if(newFileValues == null)
+				return Collections.emptySet();
+			if(metrics != null)
+				metrics.loaded(System.nanoTime() - start);
+			int[] slots = new int[index.size()];
+			Object[] newValues = new Object[index.size()];
+			int count = 0;
+			for(int slot = 0; slot < index.size(); slot++)
+				if(!Objects.deepEquals(fileValues[slot], newFileValues[slot]))
+				{
+					slots[count] = slot;
+					newValues[count++] = newFileValues[slot];
+				}
+			fileValues = newFileValues;
+			fileRawValues = rawValues;
+			fileErrors = errors;
+			changed = apply(slots, newValues, count);
+		}
+		notifyListeners(changed);
+		Set<ConfigInfo<?>> changedKeys = toInfos(changed);
+		if(verbose)
+			System.out.println("Config file reloaded, changed keys : "+changedKeys);
+		return changedKeys;
+	}
+
+	/**
+	 * Watch the config file and reload it when it changes, see {@link #reload()}.
+	 * The values are then modified by the watching thread, so the concurrent mode is enabled (see {@link #setConcurrent(boolean)}).
+	 * @param debounceMillis
+	 * 		the file is reloaded once it hasn't changed for this delay, so that rapid writes trigger only one reload
+	 * @return
+	 * 		the watcher, to close when the file shouldn't be watched anymore
+	 * @throws IOException
+	 * @throws IllegalArgumentException
+	 * 		if there is no config file, or if it isn't in the file system (inside a jar for example)
+	 */
+	public ConfigWatcher watch(long debounceMillis) throws IOException
+	{
+		if(configfile == null)
+			throw new IllegalArgumentException("No config file to watch");
+		Path path = pathOf(configfile);
+		if(path == null)
+			throw new IllegalArgumentException("Config file "+getClass().getResource(configfile)+" can't be watched");
+		setConcurrent(true);
+		return new ConfigWatcher(this, path.toAbsolutePath(), debounceMillis);
+	}
+
+	/**
+	 * Tries to look for a parser suitable for the given class
+	 * @param typeClass
+	 * 		The type class the parser must be able to parse
+	 * @return
+	 * 		A suitable parser, or null if none found
+	 */
+	private ConfigInfoParser<?> findParser(Class<?> typeClass)
+	{
+		return (ConfigInfoParser<?>) parsers.get(typeClass);
+	}
+
+	/**
+	 * Loads config elements marked by {@link Configurable} into the given object.
+	 * The fields of each class are resolved once using reflection, then set through cached method handles.
+	 * Each field counts as a read of its key in the metrics.
+	 * @param obj the object to load the config into
+	 */
+	public void loadInto(Object obj) throws ReflectiveOperationException {
+		FieldBinder binder = binderOf(obj.getClass());
+		if(metrics != null)
+			for(int slot : binder.slots())
+				metrics.read(slot);
+		if(pendingValues != null) // maybe loaded by a deriver
+		{
+			if(derivationGraph.thread == Thread.currentThread())
+				for(int slot : binder.slots())
+					derivationGraph.read(slot);
+			else if(derivationGraph.parallelPass)
+				for(int slot : binder.slots())
+					derivationGraph.readInParallel(slot);
+		}
+		try {
+			binder.bind(obj, values());
+		} catch(RuntimeException | Error | ReflectiveOperationException e) {
+			throw e;
+		} catch(Throwable t) {
+			throw new UndeclaredThrowableException(t);
+		}
+	}
+
+	/**
+	 * Return the field setters of a class, resolved the first time
+	 * @param type
+	 * @return
+	 * @throws ReflectiveOperationException
+	 */
+	FieldBinder binderOf(Class<?> type) throws ReflectiveOperationException
+	{
+		FieldBinder binder = binders.get(type);
+		if(binder == null) {
+			binder = new FieldBinder(type, name2config, index, verbose);
+			FieldBinder previous = binders.putIfAbsent(type, binder);
+			if(previous != null)
+				binder = previous;
+		}
+		return binder;
+	}
+
+	/**
+	 * Return an Object. The int[], long[], double[] and float[] values are returned as copies
+	 * @param nom
+	 * @return
+	 */
+	public Object getObject(ConfigInfo nom)
+	{
+		return ValueTable.copyOf(values().get(readSlotOf(nom)));
+	}
+	
+	/**
+	 * Get an integer
+	 * 
+	 * @param nom
+	 * @return
+	 * @throws NumberFormatException
+	 */
+	public Integer getInt(ConfigInfo nom) throws NumberFormatException
+	{
+		Object ob = getObject(nom);
+		if(ob instanceof Integer) // already parsed
+			return (Integer) ob;
+		try {
+			String s = getString(nom);
+			if(s != null)
+				return Integer.parseInt(s);
+		} catch(NumberFormatException e)
+		{
+			if(verbose)
+				System.err.println(e);
+			return Integer.parseInt(nom.getDefaultValue().toString());
+		}
+		return null;
+	}
+
+	/**
+	 * Get an object cast to a certain class. The int[], long[], double[] and float[] values are returned as copies
+	 * @param nom
+	 * @param clazz
+	 * @return
+	 */
+	public <S> S get(ConfigInfo nom, Class<S> clazz)
+	{
+		return clazz.cast(ValueTable.copyOf(values().get(readSlotOf(nom))));
+	}
+	
+	/**
+	 * Get a short
+	 * 
+	 * @param nom
+	 * @return
+	 * @throws NumberFormatException
+	 */
+	public Short getShort(ConfigInfo nom) throws NumberFormatException
+	{
+		Object ob = getObject(nom);
+		if(ob instanceof Short) // already parsed
+			return (Short) ob;
+		try {
+			String s = getString(nom);
+			if(s != null)
+				return Short.parseShort(s);
+		} catch(NumberFormatException e)
+		{
+			if(verbose)
+				System.err.println(e);
+			return Short.parseShort(nom.getDefaultValue().toString());
+		}
+		return null;
+	}
+
+	/**
+	 * Get a byte
+	 * 
+	 * @param nom
+	 * @return
+	 * @throws NumberFormatException
+	 */
+	public Byte getByte(ConfigInfo nom) throws NumberFormatException
+	{
+		Object ob = getObject(nom);
+		if(ob instanceof Byte) // already parsed
+			return (Byte) ob;
+		try {
+			String s = getString(nom);
+			if(s != null)
+				return Byte.parseByte(s);
+		} catch(NumberFormatException e)
+		{
+			if(verbose)
+				System.err.println(e);
+			return Byte.parseByte(nom.getDefaultValue().toString());
+		}
+		return null;
+	}
+
+	/**
+	 * Get a long
+	 * 
 	 * @param nom
 	 * @return
 	 * @throws NumberFormatException
 	 */
 	public Long getLong(ConfigInfo nom) throws NumberFormatException
 	{
+		Object ob = getObject(nom);
+		if(ob instanceof Long) // already parsed
+			return (Long) ob;
 		try {
 			String s = getString(nom);
 			if(s != null)
@@ -400,6 +1202,9 @@ public class Config
 	 */
 	public Boolean getBoolean(ConfigInfo nom)
 	{
+		Object ob = getObject(nom);
+		if(ob instanceof Boolean) // already parsed
+			return (Boolean) ob;
 		String s = getString(nom);
 		if(s != null)
 			return Boolean.parseBoolean(s);
@@ -415,6 +1220,9 @@ public class Config
 	 */
 	public Double getDouble(ConfigInfo nom) throws NumberFormatException
 	{
+		Object ob = getObject(nom);
+		if(ob instanceof Double) // already parsed
+			return (Double) ob;
 		try {
 			String s = getString(nom);
 			if(s != null)
@@ -428,6 +1236,169 @@ public class Config
 		return null;
 	}
 
+	/**
+	 * Get an int without boxing nor parsing
+	 * 
+	 * @param nom
+	 * @return
+	 * @throws IllegalArgumentException
+	 * 		if the parameter isn't an integer parameter
+	 */
+	public int getIntValue(ConfigInfo<Integer> nom)
+	{
+		ValueTable values = values();
+		int slot = readSlotOf(nom);
+		if(values.kind(slot) == ConfigIndex.INT)
+			return (int) values.longs[slot];
+		return (Integer) boxedValue(values, nom, slot, ConfigIndex.INT);
+	}
+
+	/**
+	 * Get a long without boxing nor parsing
+	 * 
+	 * @param nom
+	 * @return
+	 * @throws IllegalArgumentException
+	 * 		if the parameter isn't a long parameter
+	 */
+	public long getLongValue(ConfigInfo<Long> nom)
+	{
+		ValueTable values = values();
+		int slot = readSlotOf(nom);
+		if(values.kind(slot) == ConfigIndex.LONG)
+			return values.longs[slot];
+		return (Long) boxedValue(values, nom, slot, ConfigIndex.LONG);
+	}
+
+	/**
+	 * Get a short without boxing nor parsing
+	 * 
+	 * @param nom
+	 * @return
+	 * @throws IllegalArgumentException
+	 * 		if the parameter isn't a short parameter
+	 */
+	public short getShortValue(ConfigInfo<Short> nom)
+	{
+		ValueTable values = values();
+		int slot = readSlotOf(nom);
+		if(values.kind(slot) == ConfigIndex.SHORT)
+			return (short) values.longs[slot];
+		return (Short) boxedValue(values, nom, slot, ConfigIndex.SHORT);
+	}
+
+	/**
+	 * Get a byte without boxing nor parsing
+	 * 
+	 * @param nom
+	 * @return
+	 * @throws IllegalArgumentException
+	 * 		if the parameter isn't a byte parameter
+	 */
+	public byte getByteValue(ConfigInfo<Byte> nom)
+	{
+		ValueTable values = values();
+		int slot = readSlotOf(nom);
+		if(values.kind(slot) == ConfigIndex.BYTE)
+			return (byte) values.longs[slot];
+		return (Byte) boxedValue(values, nom, slot, ConfigIndex.BYTE);
+	}
+
+	/**
+	 * Get a boolean without boxing nor parsing
+	 * 
+	 * @param nom
+	 * @return
+	 * @throws IllegalArgumentException
+	 * 		if the parameter isn't a boolean parameter
+	 */
+	public boolean getBooleanValue(ConfigInfo<Boolean> nom)
+	{
+		ValueTable values = values();
+		int slot = readSlotOf(nom);
+		if(values.kind(slot) == ConfigIndex.BOOLEAN)
+			return values.longs[slot] != 0;
+		return (Boolean) boxedValue(values, nom, slot, ConfigIndex.BOOLEAN);
+	}
+
+	/**
+	 * Get a double without boxing nor parsing
+	 * 
+	 * @param nom
+	 * @return
+	 * @throws IllegalArgumentException
+	 * 		if the parameter isn't a double parameter
+	 */
+	public double getDoubleValue(ConfigInfo<Double> nom)
+	{
+		ValueTable values = values();
+		int slot = readSlotOf(nom);
+		if(values.kind(slot) == ConfigIndex.DOUBLE)
+			return values.doubles[slot];
+		return (Double) boxedValue(values, nom, slot, ConfigIndex.DOUBLE);
+	}
+
+	/**
+	 * Get a float without boxing nor parsing
+	 * 
+	 * @param nom
+	 * @return
+	 * @throws IllegalArgumentException
+	 * 		if the parameter isn't a float parameter
+	 */
+	public float getFloatValue(ConfigInfo<Float> nom)
+	{
+		ValueTable values = values();
+		int slot = readSlotOf(nom);
+		if(values.kind(slot) == ConfigIndex.FLOAT)
+			return (float) values.doubles[slot];
+		return (Float) boxedValue(values, nom, slot, ConfigIndex.FLOAT);
+	}
+
+	/**
+	 * Get a read-only view of an int[], without copying it
+	 * 
+	 * @param nom
+	 * @return
+	 */
+	public IntBuffer getIntBuffer(ConfigInfo<int[]> nom)
+	{
+		return IntBuffer.wrap((int[]) values().get(readSlotOf(nom))).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Get a read-only view of a long[], without copying it
+	 * 
+	 * @param nom
+	 * @return
+	 */
+	public LongBuffer getLongBuffer(ConfigInfo<long[]> nom)
+	{
+		return LongBuffer.wrap((long[]) values().get(readSlotOf(nom))).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Get a read-only view of a double[], without copying it
+	 * 
+	 * @param nom
+	 * @return
+	 */
+	public DoubleBuffer getDoubleBuffer(ConfigInfo<double[]> nom)
+	{
+		return DoubleBuffer.wrap((double[]) values().get(readSlotOf(nom))).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Get a read-only view of a float[], without copying it
+	 * 
+	 * @param nom
+	 * @return
+	 */
+	public FloatBuffer getFloatBuffer(ConfigInfo<float[]> nom)
+	{
+		return FloatBuffer.wrap((float[]) values().get(readSlotOf(nom))).asReadOnlyBuffer();
+	}
+
 	/**
 	 * Get a String
 	 * 
@@ -436,76 +1407,247 @@ public class Config
 	 */
 	public String getString(ConfigInfo nom)
 	{
-		if(!allConfigInfo.contains(nom))
-			throw new IllegalArgumentException("Unknown configuration key : "+nom);
-		Object ob = configValues.get(nom);
+		Object ob = values().get(readSlotOf(nom));
 		return ob == null ? null : ob.toString();
 	}
 
+	/**
+	 * Get a value of the type of its ConfigInfo. The int[], long[], double[] and float[] values are returned as copies,
+	 * see the buffer getters such as {@link #getIntBuffer(ConfigInfo)} to read them without copying
+	 * @param parameter
+	 * @return
+	 */
 	@SuppressWarnings("unchecked cast")
 	public <Type> Type get(ConfigInfo<Type> parameter) {
-		if(!allConfigInfo.contains(parameter)) {
-			throw new IllegalArgumentException("Unknown configuration key : "+parameter);
-		}
-		if(!configValues.containsKey(parameter))
-			return parameter.getDefaultValue();
-		Object value = configValues.get(parameter);
+		Object value = values().get(readSlotOf(parameter));
 		if(parameter.getTypeClass().isPrimitive() || parameter.getTypeClass().isInstance(value)) {
-			return (Type)value;
+			return (Type)ValueTable.copyOf(value);
 		}
 		throw new ClassCastException("Tried to cast parameter "+parameter+" to "+parameter.getTypeClass().getCanonicalName()+" but couldn't! (Type is "+value.getClass().getCanonicalName()+")");
 	}
 
+	/**
+	 * Return the values the current thread should read: the published ones, or the ones being modified if this thread is the writer
+	 * @return
+	 */
+	private ValueTable values()
+	{
+		ValueTable pending = pendingValues;
+		if(pending != null && (writer == Thread.currentThread() || derivationGraph.isDerivingInParallel()))
+			return pending;
+		return configValues;
+	}
+
+	/**
+	 * Return the slot of a ConfigInfo
+	 * @param nom
+	 * @return
+	 * @throws IllegalArgumentException
+	 * 		if this ConfigInfo isn't registered in this Config
+	 */
+	private int slotOf(ConfigInfo<?> nom)
+	{
+		int slot = index.slotOf(nom);
+		if(slot < 0)
+			throw new IllegalArgumentException("Unknown configuration key : "+nom);
+		if(pendingValues != null) // maybe read by a deriver
+		{
+			if(derivationGraph.thread == Thread.currentThread())
+				derivationGraph.read(slot);
+			else if(derivationGraph.parallelPass) // maybe read by a deriver of a parallel level
+				derivationGraph.readInParallel(slot);
+		}
+		return slot;
+	}
+
+	/**
+	 * Return the slot of a ConfigInfo read by a getter, and count the read if the metrics are enabled
+	 * @param nom
+	 * @return
+	 * @throws IllegalArgumentException
+	 * 		if this ConfigInfo isn't registered in this Config
+	 */
+	private int readSlotOf(ConfigInfo<?> nom)
+	{
+		int slot = slotOf(nom);
+		if(metrics != null)
+			metrics.read(slot);
+		return slot;
+	}
+
+	/**
+	 * Return the value of a slot that isn't available unboxed, for the primitive getters. It is then a value that isn't parsed yet
+	 * @param values
+	 * @param nom
+	 * @param slot
+	 * @param kind
+	 * 		the expected kind of value
+	 * @return
+	 * 		the value, of the expected kind
+	 */
+	private Object boxedValue(ValueTable values, ConfigInfo<?> nom, int slot, byte kind)
+	{
+		if(index.kinds[slot] != kind)
+			throw new IllegalArgumentException("Configuration key "+nom+" has type "+nom.getTypeClass().getCanonicalName());
+		Object value = values.get(slot);
+		if(value == null)
+			throw new NullPointerException("Configuration key "+nom+" has no value");
+		if(ConfigIndex.kindOf(value.getClass()) != kind)
+			throw new ClassCastException("Tried to cast parameter "+nom+" to "+nom.getTypeClass().getCanonicalName()+" but couldn't! (Type is "+value.getClass().getCanonicalName()+")");
+		return value;
+	}
+
 	/**
 	 * Print the difference between the current config and the default values
 	 */
 	public void printChangedValues()
 	{
 		boolean any = false;
+		ValueTable values = values();
 		System.out.println("Configuration diff :");
-		for(ConfigInfo info : allConfigInfo)
-			if(!info.getDefaultValue().equals(configValues.get(info)))
+		for(ConfigInfo<?> info : index.infos)
+		{
+			Object value = values.get(index.slotOf(info));
+			if(!Objects.deepEquals(info.getDefaultValue(), value))
 			{
-				System.out.println("  " + info + " = " + configValues.get(info) + " (default : "+info.getDefaultValue()+")");
+				System.out.println("  " + info + " = " + value + " (default : "+info.getDefaultValue()+")");
 				any = true;
 			}
+		}
 		if(!any)
 			System.out.println("	(no difference)");
 	}
 
 	/**
-	 * Complete the configuration file with the default values
+	 * Check whether the configuration file overloaded some default values
+	 * (the default values are put in place before the configuration file is read)
 	 */
 	private boolean completeConfig()
 	{
-		boolean overloaded = false;
-		for(ConfigInfo info : allConfigInfo)
+		ValueTable values = values();
+		for(int slot = 0; slot < index.size(); slot++)
+			if(!Objects.deepEquals(index.infos[slot].getDefaultValue(), values.objects[slot]))
+				return true;
+		return false;
+	}
+	
+	/**
+	 * Enable or disable the concurrent mode.
+	 * In concurrent mode, the values can be read from any thread while being overridden: the readers take no lock
+	 * and always see a consistent state, either before or after an override (including the derived values).
+	 * Each override then copies the values, so it is slower.
+	 * @param concurrent
+	 */
+	public void setConcurrent(boolean concurrent)
+	{
+		synchronized(writeLock)
 		{
-			/*
-			 * If the value exists, it comes from the file, which has the overriding priority
-			 */
-			if(!configValues.containsKey(info))
-				configValues.put(info, info.getDefaultValue());
-			
-			if(!info.getDefaultValue().equals(configValues.get(info)))
-				overloaded = true;
+			this.concurrent = concurrent;
 		}
+	}
 
-		return overloaded;
+	/**
+	 * Set the executor deriving the derived values. The derived values are then derived level by level:
+	 * the values that don't depend on each other are derived concurrently, then the values depending on them, and so on.
+	 * By default, the derived values are derived one after the other by the thread that changed the values.
+	 * @param executor
+	 * 		the executor, or null to derive the values in the thread that changed them
+	 * @see ConfigOptions#parallelDerivation(Executor)
+	 */
+	public void setDerivationExecutor(Executor executor)
+	{
+		synchronized(writeLock)
+		{
+			derivationExecutor = executor;
+		}
 	}
-	
+
+	/**
+	 * Return the duration of the last derivation of each derived value, to find the expensive derivers
+	 * @return
+	 * 		the duration in nanoseconds of each derived key, excluding the derivation of the values it read
+	 */
+	public Map<ConfigInfo<?>, Long> getDerivationDurations()
+	{
+		Map<ConfigInfo<?>, Long> durations = new LinkedHashMap<>();
+		synchronized(writeLock)
+		{
+			for(int slot = 0; slot < index.size(); slot++)
+				if(index.infos[slot] instanceof DerivedConfigInfo)
+					durations.put(index.infos[slot], derivationGraph.durationOf(slot));
+		}
+		return durations;
+	}
+
+	/**
+	 * Return the usage and timing metrics of this config, enabled by {@link ConfigOptions#metrics(boolean)}
+	 * @return
+	 * 		the metrics, or null if they are disabled
+	 */
+	public ConfigMetrics getMetrics()
+	{
+		return metrics;
+	}
+
 	/**
-	 * Override some values with a HashMap
+	 * Return the layout of the numeric and boolean values exported by {@link #export(ByteBuffer)}
+	 * @return
+	 */
+	public ConfigLayout getLayout()
+	{
+		ConfigLayout layout = this.layout;
+		if(layout == null)
+			this.layout = layout = new ConfigLayout(index);
+		return layout;
+	}
+
+	/**
+	 * Export the int, long, short, byte, boolean, double and float values into a buffer, without boxing them, following {@link #getLayout()}.
+	 * The values are written from the current position of the buffer, that is left unchanged, with the byte order of the buffer.
+	 * Call {@link ConfigExport#update()} to write again the values that changed since, after an override for example.
+	 * @param buffer
+	 * 		a heap or direct buffer, with at least {@link ConfigLayout#size()} bytes remaining
+	 * @return
+	 * 		the export, to update the buffer
+	 * @throws IllegalArgumentException
+	 * 		if the buffer is too small
+	 */
+	public ConfigExport export(ByteBuffer buffer)
+	{
+		return new ConfigExport(this, getLayout(), buffer);
+	}
+
+	/**
+	 * Return the values to export, see {@link ConfigExport}
+	 * @return
+	 */
+	ValueTable exportedValues()
+	{
+		return values();
+	}
+
+	/**
+	 * Override some values with a HashMap.
+	 * The derived values are updated once, and the new values are published at once.
 	 * @param override
 	 */
 	public void override(HashMap<ConfigInfo, Object> override)
 	{
+		int[] slots = new int[override.size()];
+		Object[] newValues = new Object[override.size()];
+		int count = 0;
 		for(Map.Entry<ConfigInfo, Object> entry : override.entrySet())
 		{
 			ConfigInfo key = entry.getKey();
-			Object value = entry.getValue();
-			override(key, value);
+			if(key != null)
+			{
+				slots[count] = slotOf(key);
+				newValues[count++] = entry.getValue();
+			}
 		}
+		if(metrics != null)
+			metrics.overridden(count);
+		notifyListeners(apply(slots, newValues, count));
 	}
 	
 	/**
@@ -517,21 +1659,319 @@ public class Config
 	{
 		if(key != null)
 		{
-			if(!allConfigInfo.contains(key))
-				throw new IllegalArgumentException("Unknown configuration key : "+key);
-			configValues.put(key, newValue);
-			updateDerivedInfo();
+			int slot = slotOf(key);
+			if(metrics != null)
+				metrics.overridden(1);
+			notifyListeners(apply(new int[] {slot}, new Object[] {newValue}, 1));
+		}
+	}
+
+	/**
+	 * Start a transaction, that overrides several values at once :
+	 * <pre>config.edit().set(key1, value1).set(key2, value2).commit();</pre>
+	 * @return
+	 */
+	public ConfigTransaction edit()
+	{
+		return new ConfigTransaction(this);
+	}
+
+	/**
+	 * Validate and apply the values of a transaction
+	 * @param entries
+	 * @return
+	 * 		the keys whose value changed, including the derived ones
+	 * @throws IllegalArgumentException
+	 * 		if a key is unknown or derived, or if a value doesn't have the type of its key. Nothing is applied then
+	 */
+	Set<ConfigInfo<?>> commit(Map<ConfigInfo<?>, Object> entries)
+	{
+		int[] slots = new int[entries.size()];
+		Object[] newValues = new Object[entries.size()];
+		int count = 0;
+		for(Map.Entry<ConfigInfo<?>, Object> entry : entries.entrySet())
+		{
+			slots[count] = checkedSlotOf(entry.getKey(), entry.getValue());
+			newValues[count++] = entry.getValue();
+		}
+		if(metrics != null)
+			metrics.overridden(count);
+		int[] changed = apply(slots, newValues, count);
+		notifyListeners(changed);
+		return toInfos(changed);
+	}
+
+	/**
+	 * Return the slot of a key to override, once checked that the value can be assigned to it
+	 * @param key
+	 * @param value
+	 * @return
+	 * @throws IllegalArgumentException
+	 * 		if the key is unknown or derived, or if the value doesn't have the type of the key
+	 */
+	int checkedSlotOf(ConfigInfo<?> key, Object value)
+	{
+		int slot = slotOf(key);
+		if(key instanceof DerivedConfigInfo)
+			throw new IllegalArgumentException("Configuration key "+key+" is derived, it can't be overridden");
+		if(!ConfigTransaction.isAssignable(key.getTypeClass(), value))
+			throw new IllegalArgumentException("Value "+value+" can't be assigned to configuration key "+key+" of type "+key.getTypeClass().getCanonicalName());
+		return slot;
+	}
+
+	/**
+	 * Return an immutable view of this config with some values overridden, for example for a request or a session.
+	 * The view shares the current values of this config and only holds the overridden values, and the derived values depending on them,
+	 * that are derived again when they are first read. The next modification of this config is applied to a copy of its values,
+	 * so that it doesn't affect the views, as in concurrent mode; the mode of this config doesn't change.
+	 * @param overrides
+	 * @return
+	 * 		the view, whose modification methods throw an UnsupportedOperationException
+	 * @throws IllegalArgumentException
+	 * 		if a key is unknown or derived, or if a value doesn't have the type of its key
+	 */
+	public Config withOverrides(Map<? extends ConfigInfo<?>, ?> overrides)
+	{
+		ValueTable values;
+		synchronized(writeLock) // no value is being modified in place
+		{
+			values = configValues;
+			shared = true;
+		}
+		return new ConfigOverlay(this, values, overrides);
+	}
+
+	/**
+	 * Return an immutable view of this config with a value overridden
+	 * @param key
+	 * @param value
+	 * @return
+	 * @see #withOverrides(Map)
+	 */
+	public <T> Config withOverrides(ConfigInfo<T> key, T value)
+	{
+		return withOverrides(Collections.singletonMap(key, value));
+	}
+
+	/**
+	 * Return the derived slots depending (directly or not) on some slots
+	 * @param slots
+	 * @return
+	 * 		the dependent derived slots, sorted
+	 */
+	int[] derivedDependentsOf(int[] slots)
+	{
+		synchronized(writeLock)
+		{
+			return derivationGraph.dependentsOf(slots);
+		}
+	}
+
+	/**
+	 * Subscribe to the changes of a value, including derived values.
+	 * The listener is notified with the new value after an override, a transaction or a reload that changed it.
+	 * @param key
+	 * @param listener
+	 * @return
+	 * 		the subscription, to cancel when the listener shouldn't be notified anymore
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> ConfigSubscription subscribe(ConfigInfo<T> key, Consumer<T> listener)
+	{
+		return subscribe(new ConfigSubscription(this, new int[] {slotOf(key)}, (Consumer<Object>) listener, null));
+	}
+
+	/**
+	 * Subscribe to the changes of a group of values, including derived values.
+	 * The listener is notified at most once per override, transaction or reload, with the keys of the group that changed.
+	 * @param listener
+	 * @param keys
+	 * @return
+	 * 		the subscription, to cancel when the listener shouldn't be notified anymore
+	 */
+	public ConfigSubscription subscribe(Consumer<Set<ConfigInfo<?>>> listener, ConfigInfo<?>... keys)
+	{
+		int[] slots = new int[keys.length];
+		for(int i = 0; i < keys.length; i++)
+			slots[i] = slotOf(keys[i]);
+		return subscribe(new ConfigSubscription(this, slots, null, listener));
+	}
+
+	private ConfigSubscription subscribe(ConfigSubscription subscription)
+	{
+		synchronized(subscriptionLock)
+		{
+			ConfigSubscription[][] updated = subscriptions.clone();
+			for(int slot : subscription.slots)
+			{
+				ConfigSubscription[] previous = updated[slot];
+				if(previous == null)
+					updated[slot] = new ConfigSubscription[] {subscription};
+				else if(!Arrays.asList(previous).contains(subscription))
+				{
+					updated[slot] = Arrays.copyOf(previous, previous.length + 1);
+					updated[slot][previous.length] = subscription;
+				}
+			}
+			subscriptions = updated;
+		}
+		return subscription;
+	}
+
+	/**
+	 * Remove a cancelled subscription
+	 * @param subscription
+	 */
+	void unsubscribe(ConfigSubscription subscription)
+	{
+		synchronized(subscriptionLock)
+		{
+			ConfigSubscription[][] updated = subscriptions.clone();
+			for(int slot : subscription.slots)
+			{
+				ConfigSubscription[] previous = updated[slot];
+				if(previous == null)
+					continue;
+				List<ConfigSubscription> remaining = new ArrayList<>(Arrays.asList(previous));
+				remaining.remove(subscription);
+				updated[slot] = remaining.isEmpty() ? null : remaining.toArray(new ConfigSubscription[remaining.size()]);
+			}
+			subscriptions = updated;
+		}
+	}
+
+	/**
+	 * Set the executor running the change notifications. By default, the listeners are notified by the thread that changed the values
+	 * @param executor
+	 */
+	public void setNotificationExecutor(Executor executor)
+	{
+		notificationExecutor = executor;
+	}
+
+	/**
+	 * Notify the subscriptions to some changed slots, each one at most once
+	 * @param changed
+	 */
+	private void notifyListeners(int[] changed)
+	{
+		ConfigSubscription[][] subscriptions = this.subscriptions;
+		Map<ConfigSubscription, Set<ConfigInfo<?>>> notified = null;
+		for(int slot : changed)
+			if(subscriptions[slot] != null)
+			{
+				if(notified == null)
+					notified = new LinkedHashMap<>();
+				for(ConfigSubscription subscription : subscriptions[slot])
+					notified.computeIfAbsent(subscription, s -> new LinkedHashSet<>()).add(index.infos[slot]);
+			}
+		if(notified == null)
+			return;
+		ValueTable values = configValues;
+		Executor executor = notificationExecutor;
+		for(Map.Entry<ConfigSubscription, Set<ConfigInfo<?>>> entry : notified.entrySet())
+		{
+			ConfigSubscription subscription = entry.getKey();
+			Set<ConfigInfo<?>> keys = entry.getValue();
+			Object value = ValueTable.copyOf(values.get(subscription.slots[0]));
+			executor.execute(() -> subscription.fire(keys, value));
 		}
 	}
 
-	private void updateDerivedInfo() {
-		for (ConfigInfo<?> info : allConfigInfo)
+	/**
+	 * Return the ConfigInfo of some slots
+	 * @param slots
+	 * @return
+	 */
+	private Set<ConfigInfo<?>> toInfos(int[] slots)
+	{
+		Set<ConfigInfo<?>> infos = new LinkedHashSet<>();
+		for(int slot : slots)
+			infos.add(index.infos[slot]);
+		return infos;
+	}
+
+	/**
+	 * Override some values, derive the values depending on them and publish the new values at once
+	 * @param slots
+	 * @param newValues
+	 * @param count
+	 * 		number of values to override
+	 * @return
+	 * 		the slots whose value changed, including the derived ones
+	 */
+	private int[] apply(int[] slots, Object[] newValues, int count)
+	{
+		synchronized(writeLock)
 		{
-			if(info instanceof DerivedConfigInfo)
+			ValueTable values = beginWrite();
+			try
+			{
+				int[] changed = new int[count];
+				int size = 0;
+				for(int i = 0; i < count; i++)
+					// the lazy values of a reloaded file are compared before being parsed
+					if(!Objects.deepEquals(newValues[i] instanceof LazyValue ? values.objects[slots[i]] : values.get(slots[i]), newValues[i]))
+					{
+						values.set(slots[i], newValues[i]);
+						changed[size++] = slots[i];
+					}
+				changed = Arrays.copyOf(changed, size);
+				int[] derived = updateDerivedInfo(changed);
+				configValues = values;
+				shared = false;
+
+				int[] all = Arrays.copyOf(changed, size + derived.length);
+				System.arraycopy(derived, 0, all, size, derived.length);
+				return all;
+			}
+			finally
 			{
-				configValues.put(info, ((DerivedConfigInfo<?>)info).derive(this));
+				endWrite();
 			}
 		}
 	}
 
+	/**
+	 * Start a modification of the values. Must be called with the write lock held
+	 * @return
+	 * 		the table to modify: a copy of the current values in concurrent mode or if they are shared with a view, the current values otherwise
+	 */
+	private ValueTable beginWrite()
+	{
+		ValueTable pending = concurrent || shared ? configValues.copy() : configValues;
+		writer = Thread.currentThread();
+		pendingValues = pending;
+		return pending;
+	}
+
+	/**
+	 * End a modification of the values, once they are published (or discarded if an exception occurred). Must be called with the write lock held
+	 */
+	private void endWrite()
+	{
+		pendingValues = null;
+		writer = null;
+	}
+
+	/**
+	 * Derive again the derived values that depend on some modified values.
+	 * The values read by each {@link DerivedConfigInfo} during its derivation are recorded as its dependencies,
+	 * so only the derived values depending (directly or not) on a modified value are derived again, in topological order.
+	 * @param changed
+	 * 		the slots of the modified values, or null to derive every value
+	 * @return
+	 * 		the derived slots whose value changed
+	 * @throws IllegalArgumentException
+	 * 		if there is a cyclic dependency between derived values
+	 */
+	private int[] updateDerivedInfo(int[] changed) {
+		if(metrics == null)
+			return derivationGraph.update(this, values(), changed, derivationExecutor);
+		long start = System.nanoTime();
+		int[] derived = derivationGraph.update(this, values(), changed, derivationExecutor);
+		metrics.derived(System.nanoTime() - start);
+		return derived;
+	}
+
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Process-wide cache of the values read from the config files, see {@link ConfigOptions#cached(boolean)}.
+ * The values are cached by config file, profiles, schema (see {@link ConfigSnapshot#schemaHash(ConfigIndex)}) and parsers,
+ * along with the stamp of the file: an entry whose file changed since is read again.
+ * The least recently used entries are evicted beyond {@link #CAPACITY} entries.
+ *
+ */
+final class ConfigCache
+{
+	static final int CAPACITY = 64;
+
+	private static final Map<Key, CachedValues> ENTRIES = new LinkedHashMap<Key, CachedValues>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, CachedValues> eldest)
+		{
+			return size() > CAPACITY;
+		}
+	};
+
+	private ConfigCache()
+	{}
+
+	/**
+	 * Key of the values of a config file
+	 */
+	static final class Key
+	{
+		private final String file;
+		private final String[] profiles;
+		private final long schema;
+		private final Map<Class<?>, ConfigInfoParser> parsers;
+
+		/**
+		 * @param file
+		 * 		location of the config file
+		 * @param profiles
+		 * @param index
+		 * @param parsers
+		 * 		compared by identity
+		 */
+		Key(String file, String[] profiles, ConfigIndex index, Map<Class<?>, ConfigInfoParser> parsers)
+		{
+			this.file = file;
+			this.profiles = profiles.clone();
+			this.schema = ConfigSnapshot.schemaHash(index);
+			this.parsers = parsers;
+		}
+
+		@Override
+		public boolean equals(Object other)
+		{
+			if(!(other instanceof Key))
+				return false;
+			Key key = (Key) other;
+			return file.equals(key.file) && Arrays.equals(profiles, key.profiles) && schema == key.schema && parsers == key.parsers;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(file, Arrays.hashCode(profiles), schema, System.identityHashCode(parsers));
+		}
+	}
+
+	private static final class CachedValues
+	{
+		private final FileStamp stamp;
+		private final Object[] values;
+		private final String[] rawValues;
+		private final List<String> errors;
+
+		private CachedValues(FileStamp stamp, Object[] values, String[] rawValues, List<String> errors)
+		{
+			this.stamp = stamp;
+			this.values = values;
+			this.rawValues = rawValues;
+			this.errors = errors;
+		}
+	}
+
+	/**
+	 * Return the cached values of a config file
+	 * @param key
+	 * @param stamp
+	 * 		current stamp of the file
+	 * @param rawValues
+	 * 		filled with the cached raw values, in slot order
+	 * @param errors
+	 * 		receives the cached parsing errors
+	 * @return
+	 * 		a copy of the cached values, in slot order, or null if they aren't cached or if the file changed since.
+	 * 		The values not read from the file (whose raw value is null) are the default values of the ConfigInfo that were read then
+	 */
+	static Object[] get(Key key, FileStamp stamp, String[] rawValues, List<String> errors)
+	{
+		CachedValues entry;
+		synchronized(ENTRIES)
+		{
+			entry = ENTRIES.get(key);
+			if(entry != null && !entry.stamp.equals(stamp))
+			{
+				ENTRIES.remove(key);
+				entry = null;
+			}
+		}
+		if(entry == null)
+			return null;
+		System.arraycopy(entry.rawValues, 0, rawValues, 0, rawValues.length);
+		errors.addAll(entry.errors);
+		return entry.values.clone();
+	}
+
+	/**
+	 * Cache the values of a config file
+	 * @param key
+	 * @param stamp
+	 * 		stamp of the file before it was read
+	 * @param values
+	 * @param rawValues
+	 * @param errors
+	 */
+	static void put(Key key, FileStamp stamp, Object[] values, String[] rawValues, List<String> errors)
+	{
+		CachedValues entry = new CachedValues(stamp, values.clone(), rawValues.clone(), new ArrayList<>(errors));
+		synchronized(ENTRIES)
+		{
+			ENTRIES.put(key, entry);
+		}
+	}
+
+	/**
+	 * Remove every entry
+	 */
+	static void clear()
+	{
+		synchronized(ENTRIES)
+		{
+			ENTRIES.clear();
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The numeric and boolean values of a {@link Config} exported into a buffer, following its {@link ConfigLayout}, see {@link Config#export(ByteBuffer)}.
+ * The values are written with the byte order of the buffer: use {@link java.nio.ByteOrder#nativeOrder()} for a C reader.
+ * The last exported values are kept, so that {@link #update()} only writes the values that changed since, by an override, a reload or a derivation.
+ *
+ */
+public final class ConfigExport
+{
+	private final Config config;
+	private final ConfigLayout layout;
+	private final ByteBuffer buffer;
+
+	/**
+	 * Position of the values in the buffer
+	 */
+	private final int base;
+
+	/**
+	 * Bits of the last exported value of each field of the layout
+	 */
+	private final long[] exported;
+
+	ConfigExport(Config config, ConfigLayout layout, ByteBuffer buffer)
+	{
+		if(buffer.remaining() < layout.size())
+			throw new IllegalArgumentException("The buffer is too small for the config : "+buffer.remaining()+" bytes remaining, "+layout.size()+" needed");
+		this.config = config;
+		this.layout = layout;
+		this.buffer = buffer;
+		this.base = buffer.position();
+		this.exported = new long[layout.slots.length];
+		write(config.exportedValues(), true);
+	}
+
+	/**
+	 * Write the values that changed since the last export
+	 * @return
+	 * 		the number of values written
+	 */
+	public synchronized int update()
+	{
+		return write(config.exportedValues(), false);
+	}
+
+	private int write(ValueTable values, boolean all)
+	{
+		int written = 0;
+		for(int field = 0; field < exported.length; field++)
+		{
+			int slot = layout.slots[field];
+			byte kind = layout.kinds[field];
+			long bits;
+			if(values.kind(slot) == kind)
+				bits = kind == ConfigIndex.DOUBLE ? Double.doubleToRawLongBits(values.doubles[slot])
+						: kind == ConfigIndex.FLOAT ? Float.floatToRawIntBits((float) values.doubles[slot])
+						: values.longs[slot];
+			else
+				bits = bitsOf(values, slot, kind);
+			if(!all && bits == exported[field])
+				continue;
+			exported[field] = bits;
+			written++;
+			int offset = base + layout.offsets[field];
+			switch(kind)
+			{
+				case ConfigIndex.LONG:
+				case ConfigIndex.DOUBLE:
+					buffer.putLong(offset, bits);
+					break;
+				case ConfigIndex.INT:
+				case ConfigIndex.FLOAT:
+					buffer.putInt(offset, (int) bits);
+					break;
+				case ConfigIndex.SHORT:
+					buffer.putShort(offset, (short) bits);
+					break;
+				default:
+					buffer.put(offset, (byte) bits);
+					break;
+			}
+		}
+		return written;
+	}
+
+	/**
+	 * Return the bits of a value that isn't unboxed in the table (a value not parsed yet, see {@link ConfigOptions#lazy(boolean)})
+	 * @param values
+	 * @param slot
+	 * @param kind
+	 * @return
+	 */
+	private static long bitsOf(ValueTable values, int slot, byte kind)
+	{
+		ConfigInfo<?> info = values.index.infos[slot];
+		Object value = values.get(slot);
+		if(value == null)
+			throw new NullPointerException("Configuration key "+info+" has no value");
+		if(ConfigIndex.kindOf(value.getClass()) != kind)
+			throw new ClassCastException("Tried to cast parameter "+info+" to "+info.getTypeClass().getCanonicalName()+" but couldn't! (Type is "+value.getClass().getCanonicalName()+")");
+		switch(kind)
+		{
+			case ConfigIndex.BOOLEAN:
+				return (Boolean) value ? 1 : 0;
+			case ConfigIndex.DOUBLE:
+				return Double.doubleToRawLongBits((Double) value);
+			case ConfigIndex.FLOAT:
+				return Float.floatToRawIntBits((Float) value);
+			default:
+				return ((Number) value).longValue();
+		}
+	}
+
+	/**
+	 * Return the layout of the exported values
+	 * @return
+	 */
+	public ConfigLayout getLayout()
+	{
+		return layout;
+	}
+
+	/**
+	 * Return the buffer holding the exported values
+	 * @return
+	 */
+	public ByteBuffer getBuffer()
+	{
+		return buffer;
+	}
+}
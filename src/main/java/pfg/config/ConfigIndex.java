@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dense index of the ConfigInfo registered in a {@link Config}.
+ * Each ConfigInfo receives a slot number when it is registered. The values are stored in arrays addressed by these slots,
+ * so checking that a ConfigInfo is known and reading its value take constant time.
+ *
+ */
+final class ConfigIndex
+{
+	/**
+	 * The registered ConfigInfo, in slot order
+	 */
+	final ConfigInfo<?>[] infos;
+
+	/**
+	 * Kinds of values that are also stored unboxed in the {@link ValueTable}
+	 */
+	static final byte OBJECT = 0;
+	static final byte INT = 1;
+	static final byte LONG = 2;
+	static final byte SHORT = 3;
+	static final byte BYTE = 4;
+	static final byte BOOLEAN = 5;
+	static final byte DOUBLE = 6;
+	static final byte FLOAT = 7;
+
+	/**
+	 * Kind of each slot, deduced from the type class of its ConfigInfo
+	 */
+	final byte[] kinds;
+
+	/**
+	 * ConfigInfo -> slot map
+	 */
+	private final Map<ConfigInfo<?>, Integer> slots;
+
+	ConfigIndex(ConfigInfo<?>[] allConfigInfo)
+	{
+		slots = new HashMap<>(allConfigInfo.length * 2);
+		ConfigInfo<?>[] registered = new ConfigInfo<?>[allConfigInfo.length];
+		int size = 0;
+		for(ConfigInfo<?> info : allConfigInfo)
+		{
+			// a ConfigInfo registered twice keeps its first slot
+			if(!slots.containsKey(info))
+			{
+				slots.put(info, size);
+				registered[size++] = info;
+			}
+		}
+		if(size < registered.length)
+		{
+			ConfigInfo<?>[] trimmed = new ConfigInfo<?>[size];
+			System.arraycopy(registered, 0, trimmed, 0, size);
+			registered = trimmed;
+		}
+		infos = registered;
+
+		kinds = new byte[size];
+		for(int slot = 0; slot < size; slot++)
+			kinds[slot] = kindOf(infos[slot].getTypeClass());
+	}
+
+	/**
+	 * Return the kind of the values of a type
+	 * @param typeClass
+	 * @return
+	 */
+	static byte kindOf(Class<?> typeClass)
+	{
+		if(typeClass == Integer.TYPE || typeClass == Integer.class)
+			return INT;
+		if(typeClass == Long.TYPE || typeClass == Long.class)
+			return LONG;
+		if(typeClass == Short.TYPE || typeClass == Short.class)
+			return SHORT;
+		if(typeClass == Byte.TYPE || typeClass == Byte.class)
+			return BYTE;
+		if(typeClass == Boolean.TYPE || typeClass == Boolean.class)
+			return BOOLEAN;
+		if(typeClass == Double.TYPE || typeClass == Double.class)
+			return DOUBLE;
+		if(typeClass == Float.TYPE || typeClass == Float.class)
+			return FLOAT;
+		return OBJECT;
+	}
+
+	/**
+	 * Number of slots
+	 * @return
+	 */
+	int size()
+	{
+		return infos.length;
+	}
+
+	/**
+	 * Return the slot of a ConfigInfo
+	 * @param info
+	 * @return
+	 * 		the slot, or -1 if this ConfigInfo isn't registered
+	 */
+	int slotOf(ConfigInfo<?> info)
+	{
+		Integer slot = slots.get(info);
+		return slot == null ? -1 : slot;
+	}
+}
@@ -5,11 +5,6 @@
 
 package pfg.config;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.LinkedList;
-import java.util.List;
-
 /**
  * The ConfigInfo interface : each object is a configurable value.
  * Instances of this interface should be either named by hand or sought using {@link ConfigInfo#findAllIn(Class)} which looks inside the class for {@link Configurable} fields
@@ -45,7 +40,9 @@ public interface ConfigInfo<Type>
 	void setName(String name);
 
 	/**
-	 * Finds all public static final ConfigInfo fields inside the given class using reflection. It also overrides their name to use the name of the field (reformatted in camelCase)
+	 * Finds all public static ConfigInfo fields inside the given class using reflection. It also overrides their name to use the name of the field (reformatted in camelCase).
+	 * The fields are only sought the first time a class is given. A class annotated with {@link ConfigRegistry} also has a registry generated at compile time,
+	 * that gives the same ConfigInfo without reflection.
 	 * @param holdingClass
 	 * 		The class to search in
 	 * @return
@@ -56,7 +53,7 @@ public interface ConfigInfo<Type>
 	}
 
 	/**
-	 * Finds all public static final ConfigInfo fields inside the given class using reflection. It also overrides their name to use the name of the field (reformatted in camelCase)
+	 * Finds all public static ConfigInfo fields inside the given class using reflection. It also overrides their name to use the name of the field (reformatted in camelCase)
 	 * @param holdingClass
 	 * 		The class to search in
 	 * @param reformat
@@ -65,34 +62,7 @@ public interface ConfigInfo<Type>
 	 * 		An array of all renamed ConfigInfo found inside the class
 	 */
 	static ConfigInfo[] findAllIn(Class<?> holdingClass, boolean reformat) {
-		List<ConfigInfo<?>> parameters = new LinkedList<>();
-		Field[] fields = holdingClass.getFields();
-		for(Field field : fields)
-		{
-			if((field.getModifiers() & (Modifier.PUBLIC | Modifier.STATIC)) != 0)
-			{
-				if(ConfigInfo.class.isAssignableFrom(field.getType()))
-				{
-					// found a valid field!
-					try
-					{
-						ConfigInfo<?> info = (ConfigInfo<?>) field.get(null);
-						parameters.add(info);
-						String formattedName;
-						if(reformat) { // reformat to camelCase
-							formattedName = toCamelCase(field.getName());
-						} else {
-							formattedName = field.getName();
-						}
-						info.setName(formattedName);
-					} catch (IllegalAccessException e)
-					{
-						e.printStackTrace();
-					}
-				}
-			}
-		}
-		return parameters.toArray(new ConfigInfo[0]);
+		return ConfigInfoFields.of(holdingClass, reformat);
 	}
 
 	/**
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The public static ConfigInfo fields of a class, found once by reflection and cached, see {@link ConfigInfo#findAllIn(Class, boolean)}
+ *
+ */
+final class ConfigInfoFields
+{
+	private static final ClassValue<ConfigInfoFields> CACHE = new ClassValue<ConfigInfoFields>() {
+		@Override
+		protected ConfigInfoFields computeValue(Class<?> holdingClass)
+		{
+			return new ConfigInfoFields(holdingClass);
+		}
+	};
+
+	private final ConfigInfo<?>[] infos;
+	private final String[] fieldNames;
+	private final String[] camelCaseNames;
+
+	private ConfigInfoFields(Class<?> holdingClass)
+	{
+		List<ConfigInfo<?>> infos = new ArrayList<>();
+		List<String> fieldNames = new ArrayList<>();
+		for(Field field : holdingClass.getFields()) // only the public fields
+		{
+			if(!Modifier.isStatic(field.getModifiers()) || !ConfigInfo.class.isAssignableFrom(field.getType()))
+				continue;
+			try
+			{
+				ConfigInfo<?> info = (ConfigInfo<?>) field.get(null);
+				if(info == null)
+					continue;
+				infos.add(info);
+				fieldNames.add(field.getName());
+			} catch (IllegalAccessException e)
+			{
+				e.printStackTrace();
+			}
+		}
+		this.infos = infos.toArray(new ConfigInfo<?>[infos.size()]);
+		this.fieldNames = fieldNames.toArray(new String[fieldNames.size()]);
+		this.camelCaseNames = new String[this.fieldNames.length];
+		for(int i = 0; i < camelCaseNames.length; i++)
+			camelCaseNames[i] = ConfigInfo.toCamelCase(this.fieldNames[i]);
+	}
+
+	/**
+	 * Return the ConfigInfo fields of a class, renamed after their field
+	 * @param holdingClass
+	 * @param reformat
+	 * 		should the names of the fields be reformatted to camelCase?
+	 * @return
+	 */
+	static ConfigInfo[] of(Class<?> holdingClass, boolean reformat)
+	{
+		ConfigInfoFields fields = CACHE.get(holdingClass);
+		String[] names = reformat ? fields.camelCaseNames : fields.fieldNames;
+		for(int i = 0; i < fields.infos.length; i++)
+			fields.infos[i].setName(names[i]);
+		return fields.infos.clone();
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Layout of the numeric and boolean values of a {@link Config} exported into a buffer, see {@link Config#export(java.nio.ByteBuffer)}.
+ * The int, long, short, byte, boolean, double and float values are laid out in slot order (the order of registration of their ConfigInfo),
+ * each one aligned on its size as in a C struct, and the size is rounded up to 8 bytes. The booleans take one byte, 0 or 1.
+ * The layout only depends on the names and types of the registered ConfigInfo, so {@link #toCStruct(String)} gives the matching C declaration.
+ *
+ */
+public final class ConfigLayout
+{
+	private final ConfigIndex index;
+	private final ConfigInfo<?>[] infos;
+	final int[] slots;
+	final byte[] kinds;
+	final int[] offsets;
+	private final int size;
+	private final long schemaHash;
+
+	/**
+	 * Offset of the value of each slot, -1 for the slots that aren't exported
+	 */
+	private final int[] slotOffsets;
+
+	ConfigLayout(ConfigIndex index)
+	{
+		this.index = index;
+		int count = 0;
+		for(byte kind : index.kinds)
+			if(kind != ConfigIndex.OBJECT)
+				count++;
+		infos = new ConfigInfo<?>[count];
+		slots = new int[count];
+		kinds = new byte[count];
+		offsets = new int[count];
+		slotOffsets = new int[index.size()];
+		Arrays.fill(slotOffsets, -1);
+
+		int offset = 0;
+		int field = 0;
+		for(int slot = 0; slot < index.size(); slot++)
+		{
+			byte kind = index.kinds[slot];
+			if(kind == ConfigIndex.OBJECT)
+				continue;
+			int width = sizeOf(kind);
+			offset = (offset + width - 1) & -width;
+			infos[field] = index.infos[slot];
+			slots[field] = slot;
+			kinds[field] = kind;
+			offsets[field] = offset;
+			slotOffsets[slot] = offset;
+			offset += width;
+			field++;
+		}
+		size = (offset + 7) & -8;
+		schemaHash = ConfigSnapshot.schemaHash(index);
+	}
+
+	/**
+	 * Size of the values of a kind, in bytes
+	 * @param kind
+	 * @return
+	 */
+	static int sizeOf(byte kind)
+	{
+		switch(kind)
+		{
+			case ConfigIndex.LONG:
+			case ConfigIndex.DOUBLE:
+				return 8;
+			case ConfigIndex.INT:
+			case ConfigIndex.FLOAT:
+				return 4;
+			case ConfigIndex.SHORT:
+				return 2;
+			default:
+				return 1;
+		}
+	}
+
+	private static String cTypeOf(byte kind)
+	{
+		switch(kind)
+		{
+			case ConfigIndex.INT:
+				return "int32_t";
+			case ConfigIndex.LONG:
+				return "int64_t";
+			case ConfigIndex.SHORT:
+				return "int16_t";
+			case ConfigIndex.BYTE:
+				return "int8_t";
+			case ConfigIndex.BOOLEAN:
+				return "uint8_t";
+			case ConfigIndex.DOUBLE:
+				return "double";
+			default:
+				return "float";
+		}
+	}
+
+	/**
+	 * Size of the exported values, in bytes
+	 * @return
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Return the exported ConfigInfo, in layout order
+	 * @return
+	 */
+	public List<ConfigInfo<?>> getConfigInfo()
+	{
+		return Collections.unmodifiableList(Arrays.asList(infos));
+	}
+
+	/**
+	 * Return the offset of the value of a ConfigInfo
+	 * @param info
+	 * @return
+	 * 		the offset in bytes, or -1 if this ConfigInfo isn't exported
+	 */
+	public int offsetOf(ConfigInfo<?> info)
+	{
+		int slot = index.slotOf(info);
+		return slot < 0 ? -1 : slotOffsets[slot];
+	}
+
+	/**
+	 * Hash of the names and types of the registered ConfigInfo, that changes when the layout may change
+	 * @return
+	 */
+	public long getSchemaHash()
+	{
+		return schemaHash;
+	}
+
+	/**
+	 * Return the C declaration of the exported values, with explicit padding and the schema hash, for example :
+	 * <pre>
+	 * #define CONFIG_SCHEMA 0x1234567890abcdefULL
+	 * typedef struct {
+	 * 	int32_t someIntegerValue; // offset 0
+	 * 	uint8_t _pad0[4];
+	 * 	double someDoubleValue; // offset 8
+	 * } config;</pre>
+	 * Only valid for a buffer in the native byte order of the reader.
+	 * @param name
+	 * 		name of the struct
+	 * @return
+	 */
+	public String toCStruct(String name)
+	{
+		StringBuilder out = new StringBuilder();
+		out.append("#include <stdint.h>\n\n");
+		out.append("#define ").append(name.toUpperCase()).append("_SCHEMA 0x").append(Long.toHexString(schemaHash)).append("ULL\n");
+		out.append("#define ").append(name.toUpperCase()).append("_SIZE ").append(size).append("\n\n");
+		out.append("typedef struct {\n");
+		int offset = 0;
+		int padding = 0;
+		Set<String> fields = new HashSet<>();
+		for(int field = 0; field < infos.length; field++)
+		{
+			if(offsets[field] > offset)
+				out.append("\tuint8_t _pad").append(padding++).append("[").append(offsets[field] - offset).append("];\n");
+			String identifier = identifierOf(infos[field].toString(), fields);
+			out.append("\t").append(cTypeOf(kinds[field])).append(" ").append(identifier).append("; // offset ").append(offsets[field]).append("\n");
+			offset = offsets[field] + sizeOf(kinds[field]);
+		}
+		if(size > offset)
+			out.append("\tuint8_t _pad").append(padding).append("[").append(size - offset).append("];\n");
+		out.append("} ").append(name).append(";\n");
+		return out.toString();
+	}
+
+	/**
+	 * Return a C identifier for a name, distinct from the identifiers already used
+	 * @param name
+	 * @param used
+	 * 		the identifiers already used, that receives the new one
+	 * @return
+	 */
+	private static String identifierOf(String name, Set<String> used)
+	{
+		StringBuilder identifier = new StringBuilder();
+		for(char c : name.toCharArray())
+			identifier.append(c < 0x80 && (Character.isLetterOrDigit(c) || c == '_') ? c : '_');
+		if(identifier.length() == 0 || Character.isDigit(identifier.charAt(0)))
+			identifier.insert(0, '_');
+		String base = identifier.toString();
+		String unique = base;
+		for(int i = 2; used.contains(unique); i++)
+			unique = base + "_" + i;
+		used.add(unique);
+		return unique;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder out = new StringBuilder("ConfigLayout (").append(size).append(" bytes) :");
+		for(int field = 0; field < infos.length; field++)
+			out.append(" ").append(infos[field]).append("@").append(offsets[field]);
+		return out.toString();
+	}
+}
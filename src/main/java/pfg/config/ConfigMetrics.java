@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Usage and timing metrics of a {@link Config}, enabled by {@link ConfigOptions#metrics(boolean)}.
+ * The counters are striped, so that the threads reading the values don't contend on them.
+ * When the metrics are disabled, the getters of the Config only check that they are.
+ *
+ */
+public final class ConfigMetrics implements ConfigMetricsMXBean
+{
+	private final ConfigIndex index;
+	private final LongAdder[] reads;
+	private final TimingHistogram loadTimes = new TimingHistogram();
+	private final TimingHistogram parseTimes = new TimingHistogram();
+	private final TimingHistogram derivationTimes = new TimingHistogram();
+	private final LongAdder parseFailures = new LongAdder();
+	private final LongAdder overrides = new LongAdder();
+
+	ConfigMetrics(ConfigIndex index)
+	{
+		this.index = index;
+		reads = new LongAdder[index.size()];
+		for(int slot = 0; slot < reads.length; slot++)
+			reads[slot] = new LongAdder();
+	}
+
+	void read(int slot)
+	{
+		reads[slot].increment();
+	}
+
+	void loaded(long nanos)
+	{
+		loadTimes.record(nanos);
+	}
+
+	void parsed(long nanos)
+	{
+		parseTimes.record(nanos);
+	}
+
+	void derived(long nanos)
+	{
+		derivationTimes.record(nanos);
+	}
+
+	void parseFailed()
+	{
+		parseFailures.increment();
+	}
+
+	void overridden(int count)
+	{
+		overrides.add(count);
+	}
+
+	/**
+	 * Number of reads of a key
+	 * @param key
+	 * @return
+	 * @throws IllegalArgumentException
+	 * 		if this key isn't registered in the Config
+	 */
+	public long getReadCount(ConfigInfo<?> key)
+	{
+		int slot = index.slotOf(key);
+		if(slot < 0)
+			throw new IllegalArgumentException("Unknown configuration key : "+key);
+		return reads[slot].sum();
+	}
+
+	@Override
+	public Map<String, Long> getReadCounts()
+	{
+		Map<String, Long> counts = new LinkedHashMap<>();
+		for(int slot = 0; slot < reads.length; slot++)
+			counts.put(index.infos[slot].toString(), reads[slot].sum());
+		return counts;
+	}
+
+	@Override
+	public TimingHistogram getLoadTimes()
+	{
+		return loadTimes;
+	}
+
+	@Override
+	public TimingHistogram getParseTimes()
+	{
+		return parseTimes;
+	}
+
+	@Override
+	public TimingHistogram getDerivationTimes()
+	{
+		return derivationTimes;
+	}
+
+	@Override
+	public long getParseFailureCount()
+	{
+		return parseFailures.sum();
+	}
+
+	@Override
+	public long getOverrideCount()
+	{
+		return overrides.sum();
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.util.Map;
+
+/**
+ * Management interface of the {@link ConfigMetrics}, to register them as a MXBean :
+ * <pre>ManagementFactory.getPlatformMBeanServer().registerMBean(config.getMetrics(), new ObjectName("pfg.config:type=ConfigMetrics"));</pre>
+ *
+ */
+public interface ConfigMetricsMXBean
+{
+	/**
+	 * Number of reads of each key, through the getters of the {@link Config} and the fields set by {@link Config#loadInto(Object)}
+	 * @return
+	 */
+	Map<String, Long> getReadCounts();
+
+	/**
+	 * Durations of the loadings of the config file, parsing included
+	 * @return
+	 */
+	TimingHistogram getLoadTimes();
+
+	/**
+	 * Durations of the parsing of each value
+	 * @return
+	 */
+	TimingHistogram getParseTimes();
+
+	/**
+	 * Durations of the derivations, each one deriving all the values depending on a change
+	 * @return
+	 */
+	TimingHistogram getDerivationTimes();
+
+	/**
+	 * Number of values of the config file that couldn't be parsed
+	 * @return
+	 */
+	long getParseFailureCount();
+
+	/**
+	 * Number of overridden values
+	 * @return
+	 */
+	long getOverrideCount();
+}
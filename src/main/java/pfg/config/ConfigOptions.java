@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Options controlling how a {@link Config} loads its config file :
+ * <pre>new Config(allConfigInfo, verbose, configfile, new ConfigOptions().memoryMapped(true), profiles);</pre>
+ *
+ */
+public final class ConfigOptions
+{
+	boolean memoryMapped;
+	Path snapshot;
+	boolean lazy;
+	Executor executor;
+	Executor derivationExecutor;
+	boolean metrics;
+	boolean cached;
+	ConfigSource[] sources = new ConfigSource[0];
+
+	/**
+	 * Map the config file in memory instead of reading it through a stream.
+	 * The keys are then matched without building any String, and only the values of the known keys of the selected profiles are decoded.
+	 * Only the files of the file system can be mapped: a config file inside a jar is still read through a stream.
+	 * @param memoryMapped
+	 * @return
+	 * 		these options
+	 */
+	public ConfigOptions memoryMapped(boolean memoryMapped)
+	{
+		this.memoryMapped = memoryMapped;
+		return this;
+	}
+
+	/**
+	 * Load the values from a snapshot saved by {@link Config#saveSnapshot(Path)}, without reading the config file.
+	 * The config file is read instead if the snapshot is missing, or if it was saved with other ConfigInfo, other profiles or another version of the config file.
+	 * @param snapshot
+	 * @return
+	 * 		these options
+	 */
+	public ConfigOptions snapshot(Path snapshot)
+	{
+		this.snapshot = snapshot;
+		return this;
+	}
+
+	/**
+	 * Parse each value of the config file the first time it is read, instead of parsing every value when the file is loaded.
+	 * Only the raw values of the profiles that may give the value are kept until then.
+	 * The values that can't be parsed are then reported when they are first read: use {@link Config#validateAll()} to check every value at once.
+	 * @param lazy
+	 * @return
+	 * 		these options
+	 */
+	public ConfigOptions lazy(boolean lazy)
+	{
+		this.lazy = lazy;
+		return this;
+	}
+
+	/**
+	 * Parse the values of the config file in parallel, with the common fork-join pool
+	 * @param parallel
+	 * @return
+	 * 		these options
+	 * @see #parallel(Executor)
+	 */
+	public ConfigOptions parallel(boolean parallel)
+	{
+		return parallel(parallel ? ForkJoinPool.commonPool() : null);
+	}
+
+	/**
+	 * Parse the values of the config file in parallel, with an executor. The value of each key is parsed independently,
+	 * once the profiles are resolved: the value of the last profile defining the key, or, if it can't be parsed, the value of the previous one, and so on.
+	 * The parsing errors are then reported in a deterministic order. Meant for the config files with many keys or expensive parsers.
+	 * Ignored in lazy mode, see {@link #lazy(boolean)}.
+	 * @param executor
+	 * 		the executor running the parsing, or null to parse the values in the constructing thread
+	 * @return
+	 * 		these options
+	 */
+	public ConfigOptions parallel(Executor executor)
+	{
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Derive the derived values level by level with an executor, including when the config file is loaded.
+	 * See {@link Config#setDerivationExecutor(Executor)}.
+	 * @param executor
+	 * 		the executor, or null to derive the values in the thread that changed them
+	 * @return
+	 * 		these options
+	 */
+	public ConfigOptions parallelDerivation(Executor executor)
+	{
+		this.derivationExecutor = executor;
+		return this;
+	}
+
+	/**
+	 * Collect usage and timing metrics: reads of each key, durations of the loadings, the parsing and the derivations, parsing errors and overrides.
+	 * See {@link Config#getMetrics()}. Without metrics, the getters only check that they are disabled.
+	 * @param metrics
+	 * @return
+	 * 		these options
+	 */
+	public ConfigOptions metrics(boolean metrics)
+	{
+		this.metrics = metrics;
+		return this;
+	}
+
+	/**
+	 * Share the values read from the config file between the configs of the process, so that the configs built again from the same file,
+	 * with the same profiles, the same ConfigInfo and the same parsers, copy the parsed values instead of reading and parsing the file again.
+	 * The file is read again once modified. The cache keeps the most recently used files only.
+	 * The values are shared between these configs: the mutable values must not be modified.
+	 * Ignored in lazy mode, see {@link #lazy(boolean)}, and with sources, see {@link #sources(ConfigSource...)}.
+	 * @param cached
+	 * @return
+	 * 		these options
+	 */
+	public ConfigOptions cached(boolean cached)
+	{
+		this.cached = cached;
+		return this;
+	}
+
+	/**
+	 * Layer some sources over the config file, for example :
+	 * <pre>new ConfigOptions().sources(ConfigSource.environment("APP_"), ConfigSource.systemProperties("config."), ConfigSource.arguments(args))</pre>
+	 * The last sources have precedence over the first ones, that have precedence over the profiles of the config file.
+	 * As with the profiles, a value that can't be parsed is replaced by the value of the previous source or profile.
+	 * On reload, only the sources whose version changed are read again (see {@link ConfigSource#version()}).
+	 * The sources can be used without config file. The snapshots are not used with sources.
+	 * @param sources
+	 * @return
+	 * 		these options
+	 */
+	public ConfigOptions sources(ConfigSource... sources)
+	{
+		this.sources = sources.clone();
+		return this;
+	}
+}
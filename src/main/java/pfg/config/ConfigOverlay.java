@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Immutable view of a {@link Config} with some values overridden, see {@link Config#withOverrides(Map)}.
+ * The values of the parent are shared, by reference: the view only holds a delta, sorted by slot, with the overridden values
+ * and the derived values depending on them, so it is read by the getters of {@link Config} through a {@link DeltaTable}.
+ * The derived values of the delta are derived again in the view when they are first read.
+ * The parent copies its values before its next modification, so the table shared with the view is never modified.
+ *
+ */
+final class ConfigOverlay extends Config
+{
+	private final Config parent;
+
+	/**
+	 * The values of this view
+	 */
+	private final DeltaTable table;
+
+	/**
+	 * @param parent
+	 * @param base
+	 * 		the values of the parent the overrides apply to, that the parent won't modify anymore
+	 * @param overrides
+	 */
+	ConfigOverlay(Config parent, ValueTable base, Map<? extends ConfigInfo<?>, ?> overrides)
+	{
+		this(parent, new DeltaTable(parent, base, overrides));
+	}
+
+	private ConfigOverlay(Config parent, DeltaTable table)
+	{
+		super(parent, table);
+		this.parent = parent;
+		this.table = table;
+		for(int i = 0; i < table.slots.length; i++)
+			if(table.index.infos[table.slots[i]] instanceof DerivedConfigInfo)
+				table.values[i] = new Derivation((DerivedConfigInfo<?>) table.index.infos[table.slots[i]]);
+	}
+
+	/**
+	 * Values of a view: the values of its parent, shared, and a delta read instead of them. The slots of the delta are read as objects
+	 */
+	private static final class DeltaTable extends ValueTable
+	{
+		private final ValueTable base;
+
+		/**
+		 * Slots of the delta, sorted
+		 */
+		private final int[] slots;
+
+		/**
+		 * Values of the delta. The derived values are filled once the view is built
+		 */
+		private final Object[] values;
+
+		private DeltaTable(Config parent, ValueTable base, Map<? extends ConfigInfo<?>, ?> overrides)
+		{
+			super(base);
+			this.base = base;
+
+			int[] overridden = new int[overrides.size()];
+			int count = 0;
+			for(Map.Entry<? extends ConfigInfo<?>, ?> entry : overrides.entrySet())
+				if(entry.getKey() != null)
+					overridden[count++] = parent.checkedSlotOf(entry.getKey(), entry.getValue());
+			overridden = Arrays.copyOf(overridden, count);
+			int[] derived = parent.derivedDependentsOf(overridden);
+
+			slots = Arrays.copyOf(overridden, count + derived.length);
+			System.arraycopy(derived, 0, slots, count, derived.length);
+			Arrays.sort(slots);
+			values = new Object[slots.length];
+			for(Map.Entry<? extends ConfigInfo<?>, ?> entry : overrides.entrySet())
+				if(entry.getKey() != null)
+					values[Arrays.binarySearch(slots, index.slotOf(entry.getKey()))] = entry.getValue();
+		}
+
+		@Override
+		byte kind(int slot)
+		{
+			return Arrays.binarySearch(slots, slot) < 0 ? super.kind(slot) : ConfigIndex.OBJECT;
+		}
+
+		@Override
+		Object get(int slot)
+		{
+			int i = Arrays.binarySearch(slots, slot);
+			if(i < 0)
+				return super.get(slot);
+			Object value = values[i];
+			return value instanceof Derivation ? ((Derivation) value).get() : value;
+		}
+
+		@Override
+		ValueTable copy()
+		{
+			throw immutable();
+		}
+
+		@Override
+		void set(int slot, Object value)
+		{
+			throw immutable();
+		}
+	}
+
+	/**
+	 * A derived value of the view, derived when first read
+	 */
+	private final class Derivation
+	{
+		private final DerivedConfigInfo<?> info;
+		private volatile boolean derived;
+		private boolean inProgress;
+		private Object value;
+
+		private Derivation(DerivedConfigInfo<?> info)
+		{
+			this.info = info;
+		}
+
+		/**
+		 * Derive the value, and the values it reads first. The derivations of a view are serialized
+		 * @throws IllegalArgumentException
+		 * 		if there is a cyclic dependency between derived values
+		 */
+		private Object get()
+		{
+			if(derived)
+				return value;
+			synchronized(ConfigOverlay.this)
+			{
+				if(derived)
+					return value;
+				if(inProgress)
+					throw new IllegalArgumentException("Cyclic dependency between derived configuration keys : "+info);
+				inProgress = true;
+				try
+				{
+					value = info.derive(ConfigOverlay.this);
+					derived = true;
+				}
+				finally
+				{
+					inProgress = false;
+				}
+				return value;
+			}
+		}
+	}
+
+	/**
+	 * The overrides of this view and the new ones apply to the values of the parent shared with this view
+	 */
+	@Override
+	public Config withOverrides(Map<? extends ConfigInfo<?>, ?> overrides)
+	{
+		Map<ConfigInfo<?>, Object> merged = new HashMap<>();
+		for(int i = 0; i < table.slots.length; i++)
+			if(!(table.values[i] instanceof Derivation))
+				merged.put(table.index.infos[table.slots[i]], table.values[i]);
+		merged.putAll(overrides);
+		return new ConfigOverlay(parent, table.base, merged);
+	}
+
+	private static UnsupportedOperationException immutable()
+	{
+		return new UnsupportedOperationException("A config with overrides can't be modified");
+	}
+
+	@Override
+	public void override(HashMap<ConfigInfo, Object> override)
+	{
+		throw immutable();
+	}
+
+	@Override
+	public <T> void override(ConfigInfo<T> key, T newValue)
+	{
+		throw immutable();
+	}
+
+	@Override
+	public ConfigTransaction edit()
+	{
+		throw immutable();
+	}
+
+	@Override
+	public Set<ConfigInfo<?>> reload()
+	{
+		throw immutable();
+	}
+
+	@Override
+	public ConfigWatcher watch(long debounceMillis)
+	{
+		throw immutable();
+	}
+
+	@Override
+	public <T> ConfigSubscription subscribe(ConfigInfo<T> key, Consumer<T> listener)
+	{
+		throw immutable();
+	}
+
+	@Override
+	public ConfigSubscription subscribe(Consumer<Set<ConfigInfo<?>>> listener, ConfigInfo<?>... keys)
+	{
+		throw immutable();
+	}
+
+	@Override
+	public void setConcurrent(boolean concurrent)
+	{
+		throw immutable();
+	}
+
+	@Override
+	public void setDerivationExecutor(Executor executor)
+	{
+		throw immutable();
+	}
+
+	@Override
+	public void setNotificationExecutor(Executor executor)
+	{
+		throw immutable();
+	}
+}
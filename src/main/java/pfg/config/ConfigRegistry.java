@@ -0,0 +1,21 @@
+package pfg.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation denoting classes holding ConfigInfo, for which a registry is generated at compile time by {@link pfg.config.processor.ConfigRegistryProcessor}.
+ * The registry of a class named Example is the class ExampleRegistry, in the same package: its method values() gives the same ConfigInfo as {@link ConfigInfo#findAllIn(Class)},
+ * in declaration order, without reflection. Only the public static ConfigInfo fields declared in the annotated class are registered.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface ConfigRegistry {
+    /**
+     * Use 'false' if the original field names should be kept (no reformatting to camelCase)
+     * @return
+     */
+    boolean reformat() default true;
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Binary snapshot of the values read from a config file, so that they can be loaded without reading nor parsing the file again.
+ * <ul>
+ * <li>The header holds a hash of the schema (the names and types of the registered ConfigInfo, in slot order), the profiles
+ * and a stamp of the config file (last modification time and size). The snapshot is only loaded if they all match.</li>
+ * <li>The values follow in slot order, each one preceded by its type tag. The values equal to their default value,
+ * including the derived values that are derived again once loaded, are not stored.</li>
+ * <li>The values of the types without a binary form are stored as their raw value from the config file, and parsed when loaded.</li>
+ * </ul>
+ *
+ */
+final class ConfigSnapshot
+{
+	private static final int MAGIC = 0x50464743; // "PFGC"
+	private static final short VERSION = 3;
+
+	/*
+	 * Type tags of the values. The primitive kinds use the constants of ConfigIndex
+	 */
+	private static final byte DEFAULT = 0;
+	private static final byte STRING = 8;
+	private static final byte CHAR = 9;
+	private static final byte RAW = 10;
+
+	private ConfigSnapshot()
+	{}
+
+	/**
+	 * Hash of the names and types of the registered ConfigInfo, in slot order
+	 * @param index
+	 * @return
+	 */
+	static long schemaHash(ConfigIndex index)
+	{
+		// 64-bit FNV-1a
+		long hash = 0xcbf29ce484222325L;
+		for(ConfigInfo<?> info : index.infos)
+		{
+			String entry = info + ":" + info.getTypeClass().getName() + (info instanceof DerivedConfigInfo ? ":derived;" : ";");
+			for(int i = 0; i < entry.length(); i++)
+			{
+				hash ^= entry.charAt(i);
+				hash *= 0x100000001b3L;
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Write a snapshot
+	 * @param out
+	 * @param index
+	 * @param profiles
+	 * @param stamp
+	 * 		stamp of the config file
+	 * @param values
+	 * 		values read from the config file, in slot order
+	 * @param rawValues
+	 * 		raw values of the config file, in slot order, null for the values the config file doesn't give
+	 * @throws IOException
+	 */
+	static void write(OutputStream out, ConfigIndex index, String[] profiles, FileStamp stamp, Object[] values, String[] rawValues) throws IOException
+	{
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(MAGIC);
+		data.writeShort(VERSION);
+		data.writeLong(schemaHash(index));
+		data.writeLong(stamp.modified);
+		data.writeLong(stamp.size);
+		data.writeInt(profiles.length);
+		for(String profile : profiles)
+			writeString(data, profile);
+		data.writeInt(index.size());
+		for(int slot = 0; slot < index.size(); slot++)
+		{
+			ConfigInfo<?> info = index.infos[slot];
+			Object value = values[slot];
+			// only the values the file doesn't give are read as the default values, that may change without changing the file
+			if(info instanceof DerivedConfigInfo || rawValues[slot] == null)
+				data.writeByte(DEFAULT);
+			else if(value instanceof Integer)
+			{
+				data.writeByte(ConfigIndex.INT);
+				data.writeInt((Integer) value);
+			}
+			else if(value instanceof Long)
+			{
+				data.writeByte(ConfigIndex.LONG);
+				data.writeLong((Long) value);
+			}
+			else if(value instanceof Short)
+			{
+				data.writeByte(ConfigIndex.SHORT);
+				data.writeShort((Short) value);
+			}
+			else if(value instanceof Byte)
+			{
+				data.writeByte(ConfigIndex.BYTE);
+				data.writeByte((Byte) value);
+			}
+			else if(value instanceof Boolean)
+			{
+				data.writeByte(ConfigIndex.BOOLEAN);
+				data.writeBoolean((Boolean) value);
+			}
+			else if(value instanceof Double)
+			{
+				data.writeByte(ConfigIndex.DOUBLE);
+				data.writeDouble((Double) value);
+			}
+			else if(value instanceof Float)
+			{
+				data.writeByte(ConfigIndex.FLOAT);
+				data.writeFloat((Float) value);
+			}
+			else if(value instanceof String)
+			{
+				data.writeByte(STRING);
+				writeString(data, (String) value);
+			}
+			else if(value instanceof Character)
+			{
+				data.writeByte(CHAR);
+				data.writeChar((Character) value);
+			}
+			else if(rawValues[slot] != null)
+			{
+				data.writeByte(RAW);
+				writeString(data, rawValues[slot]);
+			}
+			else
+				throw new IllegalArgumentException("The value of configuration key "+info+" can't be saved in a snapshot : "+value);
+		}
+		data.flush();
+	}
+
+	/**
+	 * Read a snapshot
+	 * @param snapshot
+	 * @param index
+	 * @param profiles
+	 * @param stamp
+	 * 		stamp of the config file
+	 * @param parsers
+	 * 		parsers of the raw values
+	 * @param rawValues
+	 * 		filled with the raw values stored in the snapshot, in slot order
+	 * @return
+	 * 		the values, in slot order, or null if the snapshot doesn't match the schema, the profiles or the config file
+	 * @throws IOException
+	 */
+	static Object[] read(Path snapshot, ConfigIndex index, String[] profiles, FileStamp stamp, Map<Class<?>, ConfigInfoParser> parsers, String[] rawValues) throws IOException
+	{
+		ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+		try
+		{
+			if(data.getInt() != MAGIC || data.getShort() != VERSION || data.getLong() != schemaHash(index)
+					|| data.getLong() != stamp.modified || data.getLong() != stamp.size)
+				return null;
+			String[] savedProfiles = new String[data.getInt()];
+			for(int i = 0; i < savedProfiles.length; i++)
+				savedProfiles[i] = readString(data);
+			if(!Arrays.equals(savedProfiles, profiles) || data.getInt() != index.size())
+				return null;
+
+			Object[] values = new Object[index.size()];
+			for(int slot = 0; slot < index.size(); slot++)
+			{
+				byte tag = data.get();
+				switch(tag)
+				{
+					case DEFAULT:
+						values[slot] = index.infos[slot].getDefaultValue();
+						break;
+					case ConfigIndex.INT:
+						values[slot] = data.getInt();
+						break;
+					case ConfigIndex.LONG:
+						values[slot] = data.getLong();
+						break;
+					case ConfigIndex.SHORT:
+						values[slot] = data.getShort();
+						break;
+					case ConfigIndex.BYTE:
+						values[slot] = data.get();
+						break;
+					case ConfigIndex.BOOLEAN:
+						values[slot] = data.get() != 0;
+						break;
+					case ConfigIndex.DOUBLE:
+						values[slot] = data.getDouble();
+						break;
+					case ConfigIndex.FLOAT:
+						values[slot] = data.getFloat();
+						break;
+					case STRING:
+						values[slot] = readString(data);
+						break;
+					case CHAR:
+						values[slot] = data.getChar();
+						break;
+					case RAW:
+						rawValues[slot] = readString(data);
+						ConfigInfoParser<?> parser = parsers.get(index.infos[slot].getTypeClass());
+						values[slot] = parser == null ? rawValues[slot] : parser.parse(rawValues[slot]);
+						break;
+					default:
+						return null;
+				}
+			}
+			return values;
+		}
+		catch(BufferUnderflowException | IllegalArgumentException e)
+		{
+			// truncated snapshot, or raw value that can't be parsed anymore
+			return null;
+		}
+	}
+
+	private static void writeString(DataOutputStream data, String value) throws IOException
+	{
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		data.writeInt(bytes.length);
+		data.write(bytes);
+	}
+
+	private static String readString(ByteBuffer data)
+	{
+		int length = data.getInt();
+		if(length < 0 || length > data.remaining())
+			throw new BufferUnderflowException();
+		String value = new String(data.array(), data.position(), length, StandardCharsets.UTF_8);
+		data.position(data.position() + length);
+		return value;
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.BiConsumer;
+
+/**
+ * A source of raw values layered over the config file, see {@link ConfigOptions#sources(ConfigSource...)}.
+ * The keys are matched as the keys of the config file, and the values are parsed with the same parsers.
+ * A source only giving values can be a lambda :
+ * <pre>ConfigSource source = values -&gt; values.accept("SOME_INTEGER_VALUE", "42");</pre>
+ *
+ */
+@FunctionalInterface
+public interface ConfigSource
+{
+	/**
+	 * Version of the sources whose changes can't be detected, read again on each reload
+	 */
+	long UNKNOWN_VERSION = -1;
+
+	/**
+	 * Read the values of this source
+	 * @param values
+	 * 		receives each key and its raw value
+	 * @throws IOException
+	 */
+	void read(BiConsumer<String, String> values) throws IOException;
+
+	/**
+	 * Return the version of the content of this source, that changes when the content changes.
+	 * On reload, the source is read again only if its version changed.
+	 * @return
+	 * 		the version, or {@link #UNKNOWN_VERSION} if the source should be read again on each reload
+	 * @throws IOException
+	 */
+	default long version() throws IOException
+	{
+		return UNKNOWN_VERSION;
+	}
+
+	/**
+	 * The system properties starting with a prefix, without the prefix: with the prefix "config.", "-Dconfig.some_value=3" gives "some_value".
+	 * Read again on each reload.
+	 * @param prefix
+	 * @return
+	 */
+	static ConfigSource systemProperties(String prefix)
+	{
+		return ConfigSources.systemProperties(prefix);
+	}
+
+	/**
+	 * The environment variables starting with a prefix, without the prefix: with the prefix "APP_", "APP_SOME_VALUE=3" gives "SOME_VALUE".
+	 * The environment doesn't change, so it is read once.
+	 * @param prefix
+	 * @return
+	 */
+	static ConfigSource environment(String prefix)
+	{
+		return ConfigSources.environment(prefix);
+	}
+
+	/**
+	 * The command-line arguments of the form "--key=value" or "key=value". The other arguments are ignored
+	 * @param args
+	 * @return
+	 */
+	static ConfigSource arguments(String... args)
+	{
+		return ConfigSources.arguments(args);
+	}
+
+	/**
+	 * A directory of overrides, holding a file per value: the name of the file is the key, and its content (trimmed) is the value,
+	 * as the volumes of configuration mounted in containers. The hidden files are ignored, and a missing directory gives no value.
+	 * Read again on reload only if a file was added, removed or modified.
+	 * @param directory
+	 * @return
+	 */
+	static ConfigSource directory(Path directory)
+	{
+		return ConfigSources.directory(directory);
+	}
+}
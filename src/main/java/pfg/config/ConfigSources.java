@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The {@link ConfigSource} provided by the library
+ *
+ */
+final class ConfigSources
+{
+	private ConfigSources()
+	{}
+
+	static ConfigSource systemProperties(String prefix)
+	{
+		return values -> {
+			Properties properties = System.getProperties();
+			for(String name : properties.stringPropertyNames())
+				if(name.startsWith(prefix))
+					values.accept(name.substring(prefix.length()), properties.getProperty(name));
+		};
+	}
+
+	static ConfigSource environment(String prefix)
+	{
+		return new ConfigSource()
+		{
+			@Override
+			public void read(BiConsumer<String, String> values)
+			{
+				for(Map.Entry<String, String> variable : System.getenv().entrySet())
+					if(variable.getKey().startsWith(prefix))
+						values.accept(variable.getKey().substring(prefix.length()), variable.getValue());
+			}
+
+			@Override
+			public long version()
+			{
+				return 0;
+			}
+		};
+	}
+
+	static ConfigSource arguments(String... args)
+	{
+		String[] arguments = args.clone();
+		return new ConfigSource()
+		{
+			@Override
+			public void read(BiConsumer<String, String> values)
+			{
+				for(String argument : arguments)
+				{
+					String pair = argument.startsWith("--") ? argument.substring(2) : argument;
+					int equal = pair.indexOf('=');
+					if(equal > 0)
+						values.accept(pair.substring(0, equal).trim(), pair.substring(equal + 1).trim());
+				}
+			}
+
+			@Override
+			public long version()
+			{
+				return 0;
+			}
+		};
+	}
+
+	static ConfigSource directory(Path directory)
+	{
+		return new ConfigSource()
+		{
+			@Override
+			public void read(BiConsumer<String, String> values) throws IOException
+			{
+				for(Path file : files())
+					values.accept(file.getFileName().toString(), new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim());
+			}
+
+			@Override
+			public long version() throws IOException
+			{
+				long version = 1;
+				for(Path file : files())
+					version = 31 * (31 * (31 * version + file.getFileName().hashCode()) + Files.getLastModifiedTime(file).toMillis()) + Files.size(file);
+				return version == UNKNOWN_VERSION ? 0 : version;
+			}
+
+			/**
+			 * The files of the directory, sorted by name
+			 */
+			private List<Path> files() throws IOException
+			{
+				if(!Files.isDirectory(directory))
+					return new ArrayList<>();
+				try(Stream<Path> files = Files.list(directory))
+				{
+					return files.filter(Files::isRegularFile).filter(file -> !file.getFileName().toString().startsWith(".")).sorted().collect(Collectors.toList());
+				}
+			}
+		};
+	}
+}
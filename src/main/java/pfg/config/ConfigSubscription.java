@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A listener notified when some config values change, obtained with {@link Config#subscribe(ConfigInfo, Consumer)}
+ * or {@link Config#subscribe(Consumer, ConfigInfo...)}.
+ * The listener is notified at most once per override, transaction or reload, even if several of its keys changed.
+ *
+ */
+public final class ConfigSubscription
+{
+	private final Config config;
+
+	/**
+	 * Slots of the keys this subscription listens to
+	 */
+	final int[] slots;
+
+	/**
+	 * Listener of a single key, receiving its new value. Null for group subscriptions
+	 */
+	private final Consumer<Object> valueListener;
+
+	/**
+	 * Listener of a group of keys, receiving the keys that changed. Null for single key subscriptions
+	 */
+	private final Consumer<Set<ConfigInfo<?>>> groupListener;
+
+	private volatile boolean cancelled;
+
+	ConfigSubscription(Config config, int[] slots, Consumer<Object> valueListener, Consumer<Set<ConfigInfo<?>>> groupListener)
+	{
+		this.config = config;
+		this.slots = slots;
+		this.valueListener = valueListener;
+		this.groupListener = groupListener;
+	}
+
+	/**
+	 * Notify the listener
+	 * @param changed
+	 * 		the keys of this subscription that changed
+	 * @param value
+	 * 		the new value, for single key subscriptions
+	 */
+	void fire(Set<ConfigInfo<?>> changed, Object value)
+	{
+		if(cancelled)
+			return;
+		try
+		{
+			if(valueListener != null)
+				valueListener.accept(value);
+			else
+				groupListener.accept(changed);
+		}
+		catch(RuntimeException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Stop notifying the listener
+	 */
+	public void cancel()
+	{
+		if(!cancelled)
+		{
+			cancelled = true;
+			config.unsubscribe(this);
+		}
+	}
+}
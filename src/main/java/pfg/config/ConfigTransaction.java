@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A set of overrides applied at once by {@link #commit()} : the values are validated, then applied together,
+ * the derived values are updated once and the new values are published at once.
+ * Obtained with {@link Config#edit()}.
+ *
+ */
+public final class ConfigTransaction
+{
+	private final Config config;
+
+	/**
+	 * Overrides of this transaction. Setting a key twice keeps the last value
+	 */
+	private final Map<ConfigInfo<?>, Object> entries = new LinkedHashMap<>();
+
+	ConfigTransaction(Config config)
+	{
+		this.config = config;
+	}
+
+	/**
+	 * Add an override to this transaction
+	 * @param key
+	 * @param value
+	 * @return
+	 * 		this transaction
+	 */
+	public <T> ConfigTransaction set(ConfigInfo<T> key, T value)
+	{
+		if(key == null)
+			throw new IllegalArgumentException("Unknown configuration key : null");
+		entries.put(key, value);
+		return this;
+	}
+
+	/**
+	 * Validate and apply the overrides of this transaction
+	 * @return
+	 * 		the keys whose value changed, including the derived ones
+	 * @throws IllegalArgumentException
+	 * 		if a key is unknown or derived, or if a value doesn't have the type of its key. Nothing is applied then
+	 */
+	public Set<ConfigInfo<?>> commit()
+	{
+		return config.commit(entries);
+	}
+
+	/**
+	 * Check if a value can be stored in a ConfigInfo of a given type
+	 * @param typeClass
+	 * @param value
+	 * @return
+	 */
+	static boolean isAssignable(Class<?> typeClass, Object value)
+	{
+		if(value == null)
+			return !typeClass.isPrimitive();
+		if(typeClass.isPrimitive())
+			return wrapperOf(typeClass) == value.getClass();
+		return typeClass.isInstance(value);
+	}
+
+	private static Class<?> wrapperOf(Class<?> primitive)
+	{
+		if(primitive == Integer.TYPE)
+			return Integer.class;
+		if(primitive == Long.TYPE)
+			return Long.class;
+		if(primitive == Short.TYPE)
+			return Short.class;
+		if(primitive == Byte.TYPE)
+			return Byte.class;
+		if(primitive == Boolean.TYPE)
+			return Boolean.class;
+		if(primitive == Double.TYPE)
+			return Double.class;
+		if(primitive == Float.TYPE)
+			return Float.class;
+		if(primitive == Character.TYPE)
+			return Character.class;
+		return Void.class;
+	}
+}
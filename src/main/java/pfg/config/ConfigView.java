@@ -0,0 +1,17 @@
+package pfg.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation denoting classes holding ConfigInfo, for which a typed view is generated at compile time by {@link pfg.config.processor.ConfigViewProcessor}.
+ * The view of a class named Example is the class ExampleView, in the same package. It is built from a {@link Config} and holds the values of
+ * the public static ConfigInfo fields declared in the annotated class in final fields, unboxed for the primitive types, with a getter each.
+ * The view is immutable: build a new one to read values modified since.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface ConfigView {
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watch a config file and reload its {@link Config} when it changes. Obtained with {@link Config#watch(long)}.
+ * The file is reloaded once it hasn't changed during the debounce delay, whatever the other files of its directory do.
+ *
+ */
+public final class ConfigWatcher implements Closeable
+{
+	private final Config config;
+	private final Path file;
+	private final long debounceMillis;
+	private final WatchService watchService;
+	private final Thread thread;
+
+	ConfigWatcher(Config config, Path file, long debounceMillis) throws IOException
+	{
+		this.config = config;
+		this.file = file;
+		this.debounceMillis = debounceMillis;
+		watchService = FileSystems.getDefault().newWatchService();
+		// the parent directory is watched, so that files replaced by renaming (as many editors do) are seen
+		file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+		thread = new Thread(this::watch, "Config watcher of "+file.getFileName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void watch()
+	{
+		try
+		{
+			while(true)
+			{
+				if(!concerned(watchService.take()))
+					continue;
+				// wait until the file stays unchanged during the debounce delay. The events of the other files of the directory don't delay the reload
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+				long remaining;
+				while((remaining = deadline - System.nanoTime()) > 0)
+				{
+					WatchKey key = watchService.poll(remaining, TimeUnit.NANOSECONDS);
+					if(key != null && concerned(key))
+						deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+				}
+				try
+				{
+					config.reload();
+				}
+				catch(RuntimeException e)
+				{
+					e.printStackTrace();
+				}
+			}
+		}
+		catch(InterruptedException | ClosedWatchServiceException e)
+		{
+			// closed
+		}
+	}
+
+	/**
+	 * Consume the events of a key
+	 * @param key
+	 * @return
+	 * 		true if one of them concerns the watched file
+	 */
+	private boolean concerned(WatchKey key)
+	{
+		boolean concerned = false;
+		for(WatchEvent<?> event : key.pollEvents())
+			if(event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context()))
+				concerned = true;
+		key.reset();
+		return concerned;
+	}
+
+	/**
+	 * Stop watching the config file
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		watchService.close();
+		thread.interrupt();
+	}
+}
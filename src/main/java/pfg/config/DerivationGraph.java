@@ -0,0 +1,566 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+/**
+ * Dependencies between the {@link DerivedConfigInfo} and the values they read.
+ * The dependencies of a derived value are the slots read by its {@link DerivedConfigInfo.Deriver} during its last derivation.
+ * When some values change, only the derived values depending on them (directly or not) are derived again, in topological order.
+ * A derived value reading another derived value that isn't derived yet derives it first, so the dependencies don't need to be known beforehand.
+ * <p>
+ * With an executor, the derived values are derived level by level: the stale values whose dependencies are up to date are derived concurrently,
+ * then the values depending on them, and so on. A deriver reading a value that isn't derived yet is interrupted, and runs again with the next level.
+ * The values that can't be derived this way (cyclic dependencies) are derived by the writer thread as usual.
+ *
+ */
+final class DerivationGraph
+{
+	private static final byte UP_TO_DATE = 0;
+	private static final byte STALE = 1;
+	private static final byte IN_PROGRESS = 2;
+
+	private static final int[] NONE = new int[0];
+
+	private final ConfigIndex index;
+
+	/**
+	 * Slots of the derived ConfigInfo
+	 */
+	private final int[] derivedSlots;
+
+	/**
+	 * Slots read by each derived value during its last derivation (null for the other slots)
+	 */
+	private final int[][] dependencies;
+
+	/**
+	 * Derived slots that read each slot
+	 */
+	private int[][] dependents;
+
+	/**
+	 * Derived slots, in topological order
+	 */
+	private int[] order;
+
+	/**
+	 * Has every derived value been derived once? Otherwise, the dependencies are unknown
+	 */
+	private boolean built;
+
+	/**
+	 * Thread currently deriving values, if any. The values read by this thread are recorded as dependencies.
+	 * Only read by the config while it modifies its values
+	 */
+	volatile Thread thread;
+
+	/**
+	 * Is a level being derived in parallel? The values read by the threads deriving it are then recorded by {@link #readInParallel(int)}
+	 */
+	volatile boolean parallelPass;
+
+	/**
+	 * Derivation run by each thread during a parallel level
+	 */
+	private final ThreadLocal<ParallelDerivation> parallelDerivations = new ThreadLocal<>();
+
+	/**
+	 * Duration of the last derivation of each derived value, in nanoseconds, excluding the derivation of the values it read
+	 */
+	private final long[] durations;
+
+	/*
+	 * State of the current pass
+	 */
+	private Config config;
+	private ValueTable values;
+	private final byte[] states;
+	private final int[] stack;
+	private final int[][] reads;
+	private final int[] readCounts;
+	private final long[] nestedDurations;
+	private int depth;
+	private boolean edgesChanged;
+	private final int[] modified;
+	private int modifiedCount;
+
+	DerivationGraph(ConfigIndex index)
+	{
+		this.index = index;
+		int count = 0;
+		for(ConfigInfo<?> info : index.infos)
+			if(info instanceof DerivedConfigInfo)
+				count++;
+		derivedSlots = new int[count];
+		count = 0;
+		for(int slot = 0; slot < index.size(); slot++)
+			if(index.infos[slot] instanceof DerivedConfigInfo)
+				derivedSlots[count++] = slot;
+
+		dependencies = new int[index.size()][];
+		dependents = new int[index.size()][];
+		order = derivedSlots;
+		states = new byte[index.size()];
+		stack = new int[count];
+		reads = new int[count][];
+		readCounts = new int[count];
+		nestedDurations = new long[count];
+		modified = new int[count];
+		durations = new long[index.size()];
+	}
+
+	/**
+	 * Derive the values depending on some modified slots. Must be called by the writer of the values
+	 * @param config
+	 * 		the config given to the derivers
+	 * @param values
+	 * 		the values being modified
+	 * @param changed
+	 * 		the modified slots, or null to derive every value
+	 * @param executor
+	 * 		the executor deriving the independent values concurrently, or null to derive them in the current thread
+	 * @return
+	 * 		the derived slots whose value changed
+	 */
+	int[] update(Config config, ValueTable values, int[] changed, Executor executor)
+	{
+		boolean all = changed == null || !built;
+		if(derivedSlots.length == 0 || !all && changed.length == 0)
+			return NONE;
+
+		if(all)
+			for(int slot : derivedSlots)
+				states[slot] = STALE;
+		else
+			markDependents(changed);
+
+		this.config = config;
+		this.values = values;
+		modifiedCount = 0;
+		try
+		{
+			if(executor != null)
+				deriveInParallel(executor);
+			thread = Thread.currentThread();
+			for(int slot : order)
+				if(states[slot] == STALE)
+					derive(slot);
+			if(all)
+				built = true;
+			return Arrays.copyOf(modified, modifiedCount);
+		}
+		finally
+		{
+			thread = null;
+			parallelPass = false;
+			this.config = null;
+			this.values = null;
+			depth = 0;
+			for(int slot : derivedSlots)
+				states[slot] = UP_TO_DATE;
+			if(edgesChanged)
+				rebuild();
+		}
+	}
+
+	/**
+	 * Called when the deriving thread reads a slot
+	 * @param slot
+	 */
+	void read(int slot)
+	{
+		if(depth > 0)
+			record(slot);
+		if(states[slot] == STALE)
+			derive(slot);
+		else if(states[slot] == IN_PROGRESS)
+			throw cycle(slot);
+	}
+
+	/**
+	 * Return the derived slots depending (directly or not) on some slots, according to the last derivations. Must be called with the write lock of the config held
+	 * @param slots
+	 * @return
+	 * 		the dependent derived slots, sorted. Every derived slot if the values haven't been derived yet
+	 */
+	int[] dependentsOf(int[] slots)
+	{
+		if(!built)
+			return derivedSlots.clone();
+		boolean[] found = new boolean[index.size()];
+		int[] queue = new int[derivedSlots.length];
+		int size = 0;
+		for(int slot : slots)
+			size = addDependents(slot, found, queue, size);
+		for(int i = 0; i < size; i++)
+			size = addDependents(queue[i], found, queue, size);
+		int[] result = Arrays.copyOf(queue, size);
+		Arrays.sort(result);
+		return result;
+	}
+
+	private int addDependents(int slot, boolean[] found, int[] queue, int size)
+	{
+		int[] readers = dependents[slot];
+		if(readers != null)
+			for(int reader : readers)
+				if(!found[reader])
+				{
+					found[reader] = true;
+					queue[size++] = reader;
+				}
+		return size;
+	}
+
+	/**
+	 * Mark the derived values depending on some modified slots as stale
+	 * @param changed
+	 */
+	private void markDependents(int[] changed)
+	{
+		int[] queue = new int[derivedSlots.length];
+		int size = 0;
+		for(int slot : changed)
+		{
+			// an overridden derived value is derived again
+			if(dependencies[slot] != null && states[slot] != STALE)
+			{
+				states[slot] = STALE;
+				queue[size++] = slot;
+			}
+			size = markDependents(slot, queue, size);
+		}
+		for(int i = 0; i < size; i++)
+			size = markDependents(queue[i], queue, size);
+	}
+
+	private int markDependents(int slot, int[] queue, int size)
+	{
+		int[] readers = dependents[slot];
+		if(readers != null)
+			for(int reader : readers)
+				if(states[reader] != STALE)
+				{
+					states[reader] = STALE;
+					queue[size++] = reader;
+				}
+		return size;
+	}
+
+	/**
+	 * Derive a value and record its dependencies
+	 * @param slot
+	 */
+	private void derive(int slot)
+	{
+		states[slot] = IN_PROGRESS;
+		stack[depth] = slot;
+		readCounts[depth] = 0;
+		nestedDurations[depth] = 0;
+		depth++;
+		Object value;
+		long start = System.nanoTime();
+		try
+		{
+			value = ((DerivedConfigInfo<?>) index.infos[slot]).derive(config);
+		}
+		finally
+		{
+			depth--;
+		}
+		long duration = System.nanoTime() - start;
+		if(depth > 0)
+			nestedDurations[depth - 1] += duration;
+		store(slot, value, distinct(reads[depth], readCounts[depth]), duration - nestedDurations[depth]);
+	}
+
+	/**
+	 * Store a derived value and its dependencies
+	 * @param slot
+	 * @param value
+	 * @param read
+	 * 		the slots read by the deriver, sorted
+	 * @param duration
+	 * 		duration of the derivation, in nanoseconds
+	 */
+	private void store(int slot, Object value, int[] read, long duration)
+	{
+		if(!Objects.deepEquals(values.objects[slot], value))
+			modified[modifiedCount++] = slot;
+		values.set(slot, value);
+		if(!Arrays.equals(read, dependencies[slot]))
+		{
+			dependencies[slot] = read;
+			edgesChanged = true;
+		}
+		durations[slot] = duration;
+		states[slot] = UP_TO_DATE;
+	}
+
+	/**
+	 * Derive the stale values level by level, each level with the executor
+	 * @param executor
+	 */
+	private void deriveInParallel(Executor executor)
+	{
+		int[] level = new int[derivedSlots.length];
+		while(true)
+		{
+			int size = 0;
+			for(int slot : order)
+				if(states[slot] == STALE && isReady(slot))
+					level[size++] = slot;
+			if(size == 0)
+				return;
+
+			ParallelDerivation[] derivations = new ParallelDerivation[size];
+			CountDownLatch done = new CountDownLatch(size);
+			parallelPass = true;
+			try
+			{
+				for(int i = 0; i < size; i++)
+				{
+					ParallelDerivation derivation = derivations[i] = new ParallelDerivation(level[i]);
+					executor.execute(() -> {
+						try {
+							derivation.run();
+						} finally {
+							done.countDown();
+						}
+					});
+				}
+				done.await();
+			}
+			catch(InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while deriving the configuration", e);
+			}
+			finally
+			{
+				parallelPass = false;
+			}
+
+			// the derivations are stored in topological order, and the first failure is thrown, whatever the order of the threads
+			int derived = 0;
+			for(ParallelDerivation derivation : derivations)
+			{
+				if(derivation.failure instanceof RuntimeException)
+					throw (RuntimeException) derivation.failure;
+				if(derivation.failure instanceof Error)
+					throw (Error) derivation.failure;
+				if(derivation.failure != null)
+					throw new UndeclaredThrowableException(derivation.failure);
+				if(derivation.done)
+				{
+					store(derivation.slot, derivation.value, distinct(derivation.reads, derivation.readCount), derivation.duration);
+					derived++;
+				}
+			}
+			if(derived == 0) // cyclic dependencies, left to the sequential derivation
+				return;
+		}
+	}
+
+	/**
+	 * Can a stale value be derived with the current level? It can if its known dependencies are up to date
+	 * @param slot
+	 * @return
+	 */
+	private boolean isReady(int slot)
+	{
+		if(dependencies[slot] != null)
+			for(int dependency : dependencies[slot])
+				if(states[dependency] != UP_TO_DATE)
+					return false;
+		return true;
+	}
+
+	/**
+	 * Called when a thread reads a slot during a parallel level
+	 * @param slot
+	 */
+	void readInParallel(int slot)
+	{
+		ParallelDerivation derivation = parallelDerivations.get();
+		if(derivation != null)
+			derivation.read(slot);
+	}
+
+	/**
+	 * Is the current thread deriving a value of a parallel level?
+	 * @return
+	 */
+	boolean isDerivingInParallel()
+	{
+		return parallelDerivations.get() != null;
+	}
+
+	/**
+	 * Return the duration of the last derivation of a derived value
+	 * @param slot
+	 * @return
+	 * 		the duration in nanoseconds, excluding the derivation of the values it read
+	 */
+	long durationOf(int slot)
+	{
+		return durations[slot];
+	}
+
+	/**
+	 * Interrupts a derivation that read a value that isn't derived yet
+	 */
+	private static final class NotReady extends RuntimeException
+	{
+		private static final long serialVersionUID = 1L;
+
+		private NotReady()
+		{
+			super(null, null, false, false);
+		}
+	}
+
+	private static final NotReady NOT_READY = new NotReady();
+
+	/**
+	 * Derivation of a value by a thread of a parallel level
+	 */
+	private final class ParallelDerivation
+	{
+		private final int slot;
+		private int[] reads = new int[8];
+		private int readCount;
+		private Object value;
+		private long duration;
+		private boolean done;
+		private Throwable failure;
+
+		private ParallelDerivation(int slot)
+		{
+			this.slot = slot;
+		}
+
+		private void run()
+		{
+			parallelDerivations.set(this);
+			long start = System.nanoTime();
+			try
+			{
+				value = ((DerivedConfigInfo<?>) index.infos[slot]).derive(config);
+				duration = System.nanoTime() - start;
+				done = true;
+			}
+			catch(NotReady e)
+			{
+				// derived again with the next level
+			}
+			catch(Throwable t)
+			{
+				failure = t;
+			}
+			finally
+			{
+				parallelDerivations.remove();
+			}
+		}
+
+		private void read(int read)
+		{
+			// only the derived values can be stale, including the one being derived
+			if(states[read] != UP_TO_DATE)
+				throw NOT_READY;
+			if(readCount == reads.length)
+				reads = Arrays.copyOf(reads, readCount * 2);
+			reads[readCount++] = read;
+		}
+	}
+
+	private void record(int slot)
+	{
+		int[] read = reads[depth - 1];
+		int count = readCounts[depth - 1];
+		if(read == null)
+			read = reads[depth - 1] = new int[8];
+		else if(count == read.length)
+			read = reads[depth - 1] = Arrays.copyOf(read, count * 2);
+		read[count] = slot;
+		readCounts[depth - 1] = count + 1;
+	}
+
+	private static int[] distinct(int[] read, int count)
+	{
+		if(count == 0)
+			return NONE;
+		int[] sorted = Arrays.copyOf(read, count);
+		Arrays.sort(sorted);
+		int size = 1;
+		for(int i = 1; i < count; i++)
+			if(sorted[i] != sorted[size - 1])
+				sorted[size++] = sorted[i];
+		return size == count ? sorted : Arrays.copyOf(sorted, size);
+	}
+
+	private IllegalArgumentException cycle(int slot)
+	{
+		StringBuilder cycle = new StringBuilder();
+		int start = depth - 1;
+		while(stack[start] != slot)
+			start--;
+		for(int i = start; i < depth; i++)
+			cycle.append(index.infos[stack[i]]).append(" -> ");
+		cycle.append(index.infos[slot]);
+		return new IllegalArgumentException("Cyclic dependency between derived configuration keys : "+cycle);
+	}
+
+	/**
+	 * Rebuild the reverse edges and the topological order once the dependencies changed
+	 */
+	private void rebuild()
+	{
+		edgesChanged = false;
+		int[] counts = new int[index.size()];
+		for(int slot : derivedSlots)
+			if(dependencies[slot] != null)
+				for(int dependency : dependencies[slot])
+					counts[dependency]++;
+		int[][] reverse = new int[index.size()][];
+		for(int slot : derivedSlots)
+			if(dependencies[slot] != null)
+				for(int dependency : dependencies[slot])
+				{
+					if(reverse[dependency] == null)
+						reverse[dependency] = new int[counts[dependency]];
+					reverse[dependency][--counts[dependency]] = slot;
+				}
+		dependents = reverse;
+
+		// depth-first post-order, the dependencies first
+		int[] sorted = new int[derivedSlots.length];
+		int size = 0;
+		boolean[] visited = new boolean[index.size()];
+		for(int slot : derivedSlots)
+			size = visit(slot, visited, sorted, size);
+		order = sorted;
+	}
+
+	private int visit(int slot, boolean[] visited, int[] sorted, int size)
+	{
+		if(visited[slot] || !(index.infos[slot] instanceof DerivedConfigInfo))
+			return size;
+		visited[slot] = true;
+		if(dependencies[slot] != null)
+			for(int dependency : dependencies[slot])
+				size = visit(dependency, visited, sorted, size);
+		sorted[size++] = slot;
+		return size;
+	}
+}
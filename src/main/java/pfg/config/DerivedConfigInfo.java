@@ -1,7 +1,9 @@
 package pfg.config;
 
 /**
- * ConfigInfo instance whose values depends on other ConfigInfo instances. No guarantee on the loading other so try to avoid depending on other {@link DerivedConfigInfo}
+ * ConfigInfo instance whose values depends on other ConfigInfo instances.
+ * The ConfigInfo read by the {@link Deriver} are recorded as its dependencies: it is derived again only when one of them changes,
+ * after the {@link DerivedConfigInfo} it depends on. Cyclic dependencies are rejected with an {@link IllegalArgumentException}
  * @param <Type>
  */
 public class DerivedConfigInfo<Type> extends BaseConfigInfo<Type> {
@@ -34,6 +36,22 @@ public class DerivedConfigInfo<Type> extends BaseConfigInfo<Type> {
         this.deriver = deriver;
     }
 
+    /**
+     * Creates a new named {@link DerivedConfigInfo} with a default value, a type and a dependency function
+     * @param name
+     * Name of the config element
+     * @param defaultValue
+     * Default value of the config element
+     * @param typeClass
+     * The type of the value held by this {@link ConfigInfo}
+     * @param deriver
+     * Dependency function
+     */
+    public DerivedConfigInfo(String name, Type defaultValue, Class<Type> typeClass, Deriver<Type> deriver) {
+        super(name, defaultValue, typeClass);
+        this.deriver = deriver;
+    }
+
     /**
      * Computes the new value for this config element
      * @param config
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Setters of the {@link Configurable} fields of a class, resolved once per class and per {@link Config} by {@link Config#loadInto(Object)}.
+ * Primitive fields are set from the unboxed values, without boxing.
+ *
+ */
+final class FieldBinder
+{
+	/**
+	 * Slot of the config key of each field
+	 */
+	private final int[] slots;
+
+	/**
+	 * Kind of each field ({@link ConfigIndex#OBJECT} for non-primitive fields)
+	 */
+	private final byte[] kinds;
+
+	/**
+	 * Setters with the exact primitive type of the field, (Object, primitive)void. Null for non-primitive fields.
+	 * The setters of the static fields ignore their first argument
+	 */
+	private final MethodHandle[] primitiveSetters;
+
+	/**
+	 * Setters accepting any value, (Object, Object)void. For the primitive fields, the value is unboxed and widened at runtime
+	 * (an Integer sets a long field), as with {@link Field#set(Object, Object)}
+	 */
+	private final MethodHandle[] setters;
+
+	/**
+	 * Resolve the {@link Configurable} fields of a class and of its superclasses
+	 * @param type
+	 * @param name2config
+	 * @param index
+	 * @param verbose
+	 * @throws ReflectiveOperationException
+	 * @throws IllegalArgumentException
+	 * 		if a field refers to an unknown config key
+	 */
+	FieldBinder(Class<?> type, Map<String, ConfigInfo<?>> name2config, ConfigIndex index, boolean verbose) throws ReflectiveOperationException
+	{
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		List<Field> fields = new ArrayList<>();
+		List<Integer> fieldSlots = new ArrayList<>();
+		// go deeper inside the type hierarchy
+		for(Class<?> asClass = type; asClass != null; asClass = asClass.getSuperclass())
+			for(Field f : asClass.getDeclaredFields())
+			{
+				Configurable annotation = f.getAnnotation(Configurable.class);
+				if(annotation == null) // check if field is configurable
+					continue;
+				String name = annotation.value();
+				if(name.isEmpty()) { // if no name has been given for the config key related to this field, use the field's name
+					name = f.getName();
+				}
+				ConfigInfo<?> configElement = name2config.get(name);
+				if(configElement == null)
+					throw new IllegalArgumentException("Config key '"+name+"' unknown (when loading config for field "+asClass.getCanonicalName()+"#"+f.getName());
+				fields.add(f);
+				fieldSlots.add(index.slotOf(configElement));
+				if(verbose)
+					System.out.println("Bind "+f+" to "+name);
+			}
+
+		slots = new int[fields.size()];
+		kinds = new byte[fields.size()];
+		primitiveSetters = new MethodHandle[fields.size()];
+		setters = new MethodHandle[fields.size()];
+		for(int i = 0; i < slots.length; i++)
+		{
+			Field f = fields.get(i);
+			f.setAccessible(true);
+			MethodHandle setter = lookup.unreflectSetter(f);
+			if(Modifier.isStatic(f.getModifiers())) // the setters of the static fields ignore the object
+				setter = MethodHandles.dropArguments(setter, 0, Object.class);
+			slots[i] = fieldSlots.get(i);
+			setters[i] = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+			if(f.getType().isPrimitive())
+			{
+				kinds[i] = ConfigIndex.kindOf(f.getType());
+				primitiveSetters[i] = setter.asType(MethodType.methodType(void.class, Object.class, f.getType()));
+			}
+		}
+	}
+
+	/**
+	 * Set the fields of an object
+	 * @param obj
+	 * @param values
+	 * @throws Throwable
+	 */
+	void bind(Object obj, ValueTable values) throws Throwable
+	{
+		for(int i = 0; i < slots.length; i++)
+		{
+			int slot = slots[i];
+			byte kind = kinds[i];
+			if(kind != ConfigIndex.OBJECT && values.kind(slot) == kind)
+			{
+				MethodHandle setter = primitiveSetters[i];
+				switch(kind)
+				{
+					case ConfigIndex.INT:
+						setter.invokeExact(obj, (int) values.longs[slot]);
+						continue;
+					case ConfigIndex.LONG:
+						setter.invokeExact(obj, values.longs[slot]);
+						continue;
+					case ConfigIndex.SHORT:
+						setter.invokeExact(obj, (short) values.longs[slot]);
+						continue;
+					case ConfigIndex.BYTE:
+						setter.invokeExact(obj, (byte) values.longs[slot]);
+						continue;
+					case ConfigIndex.BOOLEAN:
+						setter.invokeExact(obj, values.longs[slot] != 0);
+						continue;
+					case ConfigIndex.DOUBLE:
+						setter.invokeExact(obj, values.doubles[slot]);
+						continue;
+					case ConfigIndex.FLOAT:
+						setter.invokeExact(obj, (float) values.doubles[slot]);
+						continue;
+					default:
+						break;
+				}
+			}
+			setters[i].invokeExact(obj, ValueTable.copyOf(values.get(slot)));
+		}
+	}
+
+	/**
+	 * Slots of the config keys of the fields
+	 * @return
+	 */
+	int[] slots()
+	{
+		return slots;
+	}
+}
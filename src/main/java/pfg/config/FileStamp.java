@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Stamp of a config file, that changes when the file is modified: its last modification time and its size, compared as a pair.
+ * Used to check that the cached values and the snapshots are still those of the file
+ *
+ */
+final class FileStamp
+{
+	/**
+	 * Stamp of the config files that aren't in the file system
+	 */
+	static final FileStamp NONE = new FileStamp(-1, -1);
+
+	final long modified;
+	final long size;
+
+	FileStamp(long modified, long size)
+	{
+		this.modified = modified;
+		this.size = size;
+	}
+
+	/**
+	 * Return the stamp of a file
+	 * @param path
+	 * 		the file, or null if it isn't in the file system
+	 * @return
+	 * @throws IOException
+	 */
+	static FileStamp of(Path path) throws IOException
+	{
+		if(path == null || !Files.isRegularFile(path))
+			return NONE;
+		return new FileStamp(Files.getLastModifiedTime(path).toMillis(), Files.size(path));
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if(!(o instanceof FileStamp))
+			return false;
+		FileStamp other = (FileStamp) o;
+		return modified == other.modified && size == other.size;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Long.hashCode(modified) * 31 + Long.hashCode(size);
+	}
+}
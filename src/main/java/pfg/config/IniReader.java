@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming reader of INI files. The file is scanned once: only the entries of the sections listed in the profiles are reported,
+ * the other sections and the comments are skipped without allocating. The keys are resolved by a {@link KeyIndex}, without building any String.
+ * <ul>
+ * <li>Sections are introduced by a "[name]" line. A repeated section replaces the previous one.</li>
+ * <li>Entries are "key = value" or "key : value" lines, other lines are ignored. Spaces around the key and the value are ignored,
+ * the escape sequences of the value (a backslash followed by t, n, r, f, b, by u and four hexadecimal digits, or by any other character) are interpreted
+ * and a value ending with a backslash continues on the next line.</li>
+ * <li>Comments are lines starting with # or ;</li>
+ * </ul>
+ *
+ */
+final class IniReader
+{
+	/**
+	 * Receives the entries of the selected sections. Also used by {@link MappedIniReader}
+	 */
+	interface Handler
+	{
+		/**
+		 * Called at the beginning of a selected section
+		 * @param profile
+		 * 		index of the section name in the profiles
+		 */
+		void section(int profile);
+
+		/**
+		 * Called for each entry of a selected section whose key is known
+		 * @param profile
+		 * 		index of the section name in the profiles
+		 * @param slot
+		 * 		slot of the key
+		 * @param value
+		 */
+		void entry(int profile, int slot, String value);
+
+		/**
+		 * Called for each entry of a selected section whose key is unknown. Neither its key nor its value is decoded
+		 * @param chars
+		 * @param start
+		 * 		start of the key in chars
+		 * @param end
+		 * 		end of the key in chars
+		 */
+		void unknownKey(CharSequence chars, int start, int end);
+
+		/**
+		 * Called for each entry of a selected section whose key isn't ASCII, so that it must be resolved by name
+		 * @param profile
+		 * 		index of the section name in the profiles
+		 * @param key
+		 * @param value
+		 */
+		void unresolvedEntry(int profile, String key, String value);
+	}
+
+	private final Reader reader;
+	private final String[] profiles;
+	private final KeyIndex keys;
+	private final char[] buffer = new char[8192];
+	private int position;
+	private int limit;
+
+	/**
+	 * The current line, for the lines that are not skipped
+	 */
+	private char[] line = new char[256];
+	private CharBuffer lineView = CharBuffer.wrap(line);
+	private int length;
+
+	/**
+	 * Names of all the sections of the file
+	 */
+	private final List<String> sections = new ArrayList<>();
+
+	IniReader(Reader reader, String[] profiles, KeyIndex keys)
+	{
+		this.reader = reader;
+		this.profiles = profiles;
+		this.keys = keys;
+	}
+
+	/**
+	 * Read the whole file
+	 * @param handler
+	 * @throws IOException
+	 */
+	void read(Handler handler) throws IOException
+	{
+		int profile = -1;
+		int c;
+		while((c = skipBlanks()) >= 0)
+		{
+			if(c == '\n' || c == '\r')
+				continue;
+			if(c == '#' || c == ';')
+			{
+				skipLine();
+				continue;
+			}
+			if(c == '[')
+			{
+				readLine(-1);
+				int end = length;
+				while(end > 0 && line[end - 1] != ']')
+					end--;
+				String name = new String(line, 0, end > 0 ? end - 1 : length).trim();
+				sections.add(name);
+				profile = Arrays.asList(profiles).indexOf(name);
+				if(profile >= 0)
+					handler.section(profile);
+				continue;
+			}
+			if(profile < 0) // entries outside of the selected sections
+			{
+				skipLine();
+				continue;
+			}
+			readLine(c);
+			int separator = 0;
+			while(separator < length && line[separator] != '=' && line[separator] != ':')
+				separator++;
+			if(separator == length) // no value
+				continue;
+			int keyStart = 0;
+			int keyEnd = separator;
+			while(keyStart < keyEnd && Character.isWhitespace(line[keyStart]))
+				keyStart++;
+			while(keyEnd > keyStart && Character.isWhitespace(line[keyEnd - 1]))
+				keyEnd--;
+			if(keyStart == keyEnd)
+				continue;
+			int slot = keys.find(lineView, keyStart, keyEnd);
+			if(slot == -1)
+				handler.unknownKey(lineView, keyStart, keyEnd);
+			else if(slot == KeyIndex.NOT_ASCII)
+				handler.unresolvedEntry(profile, new String(line, keyStart, keyEnd - keyStart), unescape(trimmed(separator + 1, length)));
+			else
+				handler.entry(profile, slot, unescape(trimmed(separator + 1, length)));
+		}
+	}
+
+	/**
+	 * Names of all the sections of the file, once it is read
+	 * @return
+	 */
+	List<String> sections()
+	{
+		return sections;
+	}
+
+	private int next() throws IOException
+	{
+		if(position == limit)
+		{
+			limit = reader.read(buffer, 0, buffer.length);
+			position = 0;
+			if(limit <= 0)
+			{
+				limit = 0;
+				return -1;
+			}
+		}
+		return buffer[position++];
+	}
+
+	private int skipBlanks() throws IOException
+	{
+		int c;
+		do
+			c = next();
+		while(c == ' ' || c == '\t' || c == '\uFEFF');
+		return c;
+	}
+
+	private void skipLine() throws IOException
+	{
+		int c;
+		do
+			c = next();
+		while(c >= 0 && c != '\n' && c != '\r');
+	}
+
+	/**
+	 * Read the rest of the line, and the following lines if the value ends with a backslash
+	 * @param first
+	 * 		first character of the line, already read, or -1
+	 * @throws IOException
+	 */
+	private void readLine(int first) throws IOException
+	{
+		length = 0;
+		if(first >= 0)
+			append((char) first);
+		int c;
+		while(true)
+		{
+			c = next();
+			if(c < 0 || c == '\n' || c == '\r')
+			{
+				int end = length;
+				while(end > 0 && (line[end - 1] == ' ' || line[end - 1] == '\t'))
+					end--;
+				int backslashes = 0;
+				while(backslashes < end && line[end - 1 - backslashes] == '\\')
+					backslashes++;
+				if(c < 0 || backslashes % 2 == 0)
+					return;
+				// line continuation
+				length = end - 1;
+				if(c == '\r' && (c = next()) != '\n' && c >= 0)
+					position--;
+				while((c = next()) == ' ' || c == '\t')
+					;
+				if(c < 0)
+					return;
+				if(c == '\n' || c == '\r')
+				{
+					position--;
+					continue;
+				}
+			}
+			append((char) c);
+		}
+	}
+
+	private void append(char c)
+	{
+		if(length == line.length)
+		{
+			line = Arrays.copyOf(line, length * 2);
+			lineView = CharBuffer.wrap(line);
+		}
+		line[length++] = c;
+	}
+
+	private String trimmed(int start, int end)
+	{
+		while(start < end && Character.isWhitespace(line[start]))
+			start++;
+		while(end > start && Character.isWhitespace(line[end - 1]))
+			end--;
+		return new String(line, start, end - start);
+	}
+
+	/**
+	 * Interpret the escape sequences of a value
+	 * @param value
+	 * @return
+	 */
+	static String unescape(String value)
+	{
+		int backslash = value.indexOf('\\');
+		if(backslash < 0)
+			return value;
+		StringBuilder unescaped = new StringBuilder(value.length());
+		unescaped.append(value, 0, backslash);
+		for(int i = backslash; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+			if(c != '\\' || i + 1 == value.length())
+			{
+				unescaped.append(c);
+				continue;
+			}
+			c = value.charAt(++i);
+			switch(c)
+			{
+				case 't':
+					unescaped.append('\t');
+					break;
+				case 'n':
+					unescaped.append('\n');
+					break;
+				case 'r':
+					unescaped.append('\r');
+					break;
+				case 'f':
+					unescaped.append('\f');
+					break;
+				case 'b':
+					unescaped.append('\b');
+					break;
+				case 'u':
+					if(i + 4 < value.length())
+					{
+						try
+						{
+							unescaped.append((char) Integer.parseInt(value.substring(i + 1, i + 5), 16));
+							i += 4;
+							break;
+						}
+						catch(NumberFormatException e)
+						{
+							// not an unicode escape sequence, kept as is
+						}
+					}
+					unescaped.append(c);
+					break;
+				default:
+					unescaped.append(c);
+					break;
+			}
+		}
+		return unescaped.toString();
+	}
+}
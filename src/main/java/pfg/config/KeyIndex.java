@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+/**
+ * Lookup of the keys of a config file among the registered names, without building any String.
+ * Every accepted spelling of every name is resolved by this index, so that the loading of a config file doesn't allocate anything for its keys.
+ * A key matches a name if the key in lower case is the name, if the key reformatted to camelCase (see {@link ConfigInfo#toCamelCase(String)}) is the name,
+ * or if the key is the name itself, in this order of priority.
+ * All these spellings have the same "folded" form (lower case, without underscore), so the names are stored in a hash table of their folded form
+ * and a key is resolved in one probe, by hashing its folded form on the fly and checking the candidates.
+ *
+ */
+final class KeyIndex
+{
+	/**
+	 * Returned by {@link #find(CharSequence, int, int)} for the keys that can't be matched character per character
+	 */
+	static final int NOT_ASCII = -2;
+
+	/**
+	 * Registered names, in slot order
+	 */
+	private final char[][] names;
+
+	/**
+	 * Open addressing hash table of the folded names: slot + 1, or 0 for empty buckets
+	 */
+	private final int[] table;
+	private final int mask;
+
+	KeyIndex(ConfigIndex index)
+	{
+		names = new char[index.size()][];
+		int capacity = 2;
+		while(capacity < 2 * index.size())
+			capacity <<= 1;
+		table = new int[capacity];
+		mask = capacity - 1;
+		// inserted backward, so that the last ConfigInfo registered with a given name is found first
+		for(int slot = index.size() - 1; slot >= 0; slot--)
+		{
+			names[slot] = index.infos[slot].toString().toCharArray();
+			int bucket = hash(names[slot]) & mask;
+			while(table[bucket] != 0)
+				bucket = (bucket + 1) & mask;
+			table[bucket] = slot + 1;
+		}
+	}
+
+	private static int hash(char[] name)
+	{
+		int hash = 0;
+		for(char c : name)
+			if(c != '_')
+				hash = 31 * hash + Character.toLowerCase(c);
+		return hash;
+	}
+
+	/**
+	 * Find the slot of an ASCII key
+	 * @param key
+	 * 		the characters holding the key
+	 * @param start
+	 * 		index of the first character of the key
+	 * @param end
+	 * 		index after the last character of the key
+	 * @return
+	 * 		the slot, -1 if the key is unknown, or {@link #NOT_ASCII} if the key isn't ASCII
+	 */
+	int find(CharSequence key, int start, int end)
+	{
+		int hash = 0;
+		for(int i = start; i < end; i++)
+		{
+			char c = key.charAt(i);
+			if(c >= 0x80)
+				return NOT_ASCII;
+			if(c != '_')
+				hash = 31 * hash + Character.toLowerCase(c);
+		}
+		// the lower case spelling has priority over the camelCase one, that has priority over the exact one
+		int camelCase = -1;
+		int exact = -1;
+		for(int bucket = hash & mask; table[bucket] != 0; bucket = (bucket + 1) & mask)
+		{
+			int slot = table[bucket] - 1;
+			if(isLowerCase(key, start, end, names[slot]))
+				return slot;
+			if(camelCase < 0 && isCamelCase(key, start, end, names[slot]))
+				camelCase = slot;
+			else if(exact < 0 && isExact(key, start, end, names[slot]))
+				exact = slot;
+		}
+		return camelCase >= 0 ? camelCase : exact;
+	}
+
+	private static boolean isLowerCase(CharSequence key, int start, int end, char[] name)
+	{
+		if(end - start != name.length)
+			return false;
+		for(int i = 0; i < name.length; i++)
+			if(Character.toLowerCase(key.charAt(start + i)) != name[i])
+				return false;
+		return true;
+	}
+
+	private static boolean isExact(CharSequence key, int start, int end, char[] name)
+	{
+		if(end - start != name.length)
+			return false;
+		for(int i = 0; i < name.length; i++)
+			if(key.charAt(start + i) != name[i])
+				return false;
+		return true;
+	}
+
+	private static boolean isCamelCase(CharSequence key, int start, int end, char[] name)
+	{
+		int length = 0;
+		boolean firstWord = true;
+		boolean wordStart = false;
+		for(int i = start; i < end; i++)
+		{
+			char c = key.charAt(i);
+			if(c == '_')
+			{
+				firstWord = false;
+				wordStart = true;
+				continue;
+			}
+			char expected = !firstWord && wordStart ? Character.toUpperCase(c) : Character.toLowerCase(c);
+			wordStart = false;
+			if(length == name.length || name[length++] != expected)
+				return false;
+		}
+		return length == name.length;
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A value of the config file that is parsed the first time it is read, see {@link ConfigOptions#lazy(boolean)}.
+ * Also used to parse the values in parallel, see {@link ConfigOptions#parallel(java.util.concurrent.Executor)}.
+ * Only the raw values of the profiles that may give the value are kept: the value of the last profile, then, if it can't be parsed,
+ * the value of the previous profile, and so on. If none can be parsed, the value is the default value.
+ * The value is parsed once, even if it is read by several threads at the same time.
+ *
+ */
+final class LazyValue
+{
+	private final ConfigInfo<?> info;
+	private final ConfigInfoParser<?> parser;
+
+	/**
+	 * Raw values of the profiles defining this key, from the last profile to the first one
+	 */
+	private final String[] candidates;
+	private final boolean verbose;
+
+	/**
+	 * Should the parsing errors be printed when they occur? Otherwise, they are printed by {@link #printErrors(List)}
+	 */
+	private final boolean printErrors;
+
+	/**
+	 * Metrics of the config, or null
+	 */
+	private final ConfigMetrics metrics;
+
+	/**
+	 * Parsing error of each raw value, null if the value was parsed or not tried
+	 */
+	private final IllegalArgumentException[] exceptions;
+
+	private volatile boolean parsed;
+	private Object value;
+
+	/**
+	 * The raw value that gave the value, or null if the value is the default value
+	 */
+	private String raw;
+
+	LazyValue(ConfigInfo<?> info, ConfigInfoParser<?> parser, String[] candidates, boolean verbose, boolean printErrors, ConfigMetrics metrics)
+	{
+		this.info = info;
+		this.parser = parser;
+		this.candidates = candidates;
+		this.verbose = verbose;
+		this.printErrors = printErrors;
+		this.exceptions = new IllegalArgumentException[candidates.length];
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Return the value, parsed if needed
+	 * @return
+	 */
+	Object get()
+	{
+		if(!parsed)
+			parse();
+		return value;
+	}
+
+	/**
+	 * Return the raw value that gave the value, parsed if needed
+	 * @return
+	 * 		the raw value, or null if no raw value could be parsed
+	 */
+	String raw()
+	{
+		if(!parsed)
+			parse();
+		return raw;
+	}
+
+	private synchronized void parse()
+	{
+		if(parsed)
+			return;
+		value = info.getDefaultValue();
+		for(int i = 0; i < candidates.length; i++)
+		{
+			long start = metrics != null ? System.nanoTime() : 0;
+			try {
+				value = parser.parse(candidates[i]);
+				raw = candidates[i];
+				if(metrics != null)
+					metrics.parsed(System.nanoTime() - start);
+				break;
+			} catch (IllegalArgumentException exception) {
+				if(metrics != null)
+				{
+					metrics.parsed(System.nanoTime() - start);
+					metrics.parseFailed();
+				}
+				exceptions[i] = exception;
+				if(printErrors)
+					printError(i);
+			}
+		}
+		parsed = true;
+	}
+
+	private void printError(int candidate)
+	{
+		IllegalArgumentException exception = exceptions[candidate];
+		if(verbose) {
+			System.err.print("Failed to load "+info+" due to: "+exception.getClass().getCanonicalName()+": "+exception.getMessage()+".");
+			if(candidate == candidates.length - 1)
+				System.err.println(" No already existing key, loading default value ("+info.getDefaultValue()+")");
+			else
+				System.err.println(" Loading the value of a previous profile");
+		}
+		exception.printStackTrace();
+	}
+
+	/**
+	 * Print the errors that occurred while parsing the value, and report them
+	 * @param errors
+	 * 		receives a description of each error
+	 */
+	void printErrors(List<String> errors)
+	{
+		get();
+		for(int i = 0; i < candidates.length; i++)
+			if(exceptions[i] != null)
+			{
+				printError(i);
+				errors.add(Config.parseError(info, candidates[i], exceptions[i]));
+			}
+	}
+
+	/**
+	 * Parse every raw value, and report the ones that can't be parsed
+	 * @param errors
+	 * 		receives a description of each error
+	 */
+	void validate(List<String> errors)
+	{
+		get();
+		for(String candidate : candidates)
+		{
+			try {
+				parser.parse(candidate);
+			} catch (IllegalArgumentException exception) {
+				errors.add(Config.parseError(info, candidate, exception));
+			}
+		}
+	}
+
+	/**
+	 * Two lazy values are equal if they would give the same value
+	 */
+	@Override
+	public boolean equals(Object other)
+	{
+		if(!(other instanceof LazyValue))
+			return false;
+		LazyValue lazy = (LazyValue) other;
+		return info == lazy.info && parser == lazy.parser && Arrays.equals(candidates, lazy.candidates);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Arrays.hashCode(candidates);
+	}
+
+	@Override
+	public String toString()
+	{
+		return parsed ? String.valueOf(value) : candidates[0]+" (not parsed yet)";
+	}
+}
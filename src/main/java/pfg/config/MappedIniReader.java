@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reader of INI files mapped in memory, with the syntax of {@link IniReader}.
+ * The keys are matched against the registered names at the byte level, by a {@link KeyIndex}:
+ * a String is built only for the values of the known keys of the selected sections.
+ * The entries are reported to an {@link IniReader.Handler}.
+ *
+ */
+final class MappedIniReader
+{
+	private final ByteBuffer buffer;
+	private final byte[][] profiles;
+	private final KeyIndex keys;
+
+	/**
+	 * The bytes of the file seen as characters, for the {@link KeyIndex}
+	 */
+	private final CharSequence chars;
+
+	/**
+	 * Bytes of the values spanning several lines
+	 */
+	private byte[] value = new byte[256];
+
+	/**
+	 * Names of all the sections of the file
+	 */
+	private final List<String> sections = new ArrayList<>();
+
+	MappedIniReader(ByteBuffer buffer, String[] profiles, KeyIndex keys)
+	{
+		this.buffer = buffer;
+		this.keys = keys;
+		this.chars = new Bytes(buffer);
+		this.profiles = new byte[profiles.length][];
+		for(int i = 0; i < profiles.length; i++)
+			this.profiles[i] = profiles[i].getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Read the whole file
+	 * @param handler
+	 */
+	void read(IniReader.Handler handler)
+	{
+		int limit = buffer.limit();
+		int position = 0;
+		// UTF-8 byte order mark
+		if(limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF)
+			position = 3;
+		int profile = -1;
+		while(position < limit)
+		{
+			int start = skipBlanks(position, limit);
+			int end = endOfLine(start, limit);
+			position = skipNewLine(end, limit);
+			if(start == end)
+				continue;
+			byte first = buffer.get(start);
+			if(first == '#' || first == ';')
+				continue;
+			if(first == '[')
+			{
+				int close = end;
+				while(close > start && buffer.get(close - 1) != ']')
+					close--;
+				int nameStart = skipBlanks(start + 1, close > start ? close - 1 : end);
+				int nameEnd = trimEnd(nameStart, close > start ? close - 1 : end);
+				profile = profileOf(nameStart, nameEnd);
+				sections.add(string(nameStart, nameEnd));
+				if(profile >= 0)
+					handler.section(profile);
+				continue;
+			}
+			if(profile < 0) // entries outside of the selected sections
+				continue;
+			int separator = start;
+			while(separator < end && buffer.get(separator) != '=' && buffer.get(separator) != ':')
+				separator++;
+			// the continuation lines of a value are part of the entry
+			int valueEnd = trimEnd(separator < end ? separator + 1 : end, end);
+			boolean continued = false;
+			while(isContinued(separator < end ? separator + 1 : end, valueEnd) && position < limit)
+			{
+				continued = true;
+				int next = skipBlanks(position, limit);
+				int nextEnd = endOfLine(next, limit);
+				position = skipNewLine(nextEnd, limit);
+				valueEnd = trimEnd(next, nextEnd);
+			}
+			if(separator == end) // no value
+				continue;
+			int keyEnd = trimEnd(start, separator);
+			if(keyEnd == start)
+				continue;
+			int slot = keys.find(chars, start, keyEnd);
+			int valueStart = skipBlanks(separator + 1, end);
+			if(slot == -1)
+				handler.unknownKey(chars, start, keyEnd);
+			else if(slot == KeyIndex.NOT_ASCII)
+				handler.unresolvedEntry(profile, string(start, keyEnd), IniReader.unescape(value(valueStart, valueEnd, continued)));
+			else
+				handler.entry(profile, slot, IniReader.unescape(value(valueStart, valueEnd, continued)));
+		}
+	}
+
+	/**
+	 * Names of all the sections of the file, once it is read
+	 * @return
+	 */
+	List<String> sections()
+	{
+		return sections;
+	}
+
+	private int profileOf(int start, int end)
+	{
+		for(int i = 0; i < profiles.length; i++)
+		{
+			byte[] name = profiles[i];
+			if(name.length != end - start)
+				continue;
+			int j = 0;
+			while(j < name.length && name[j] == buffer.get(start + j))
+				j++;
+			if(j == name.length)
+				return i;
+		}
+		return -1;
+	}
+
+	private int skipBlanks(int position, int limit)
+	{
+		while(position < limit && (buffer.get(position) == ' ' || buffer.get(position) == '\t'))
+			position++;
+		return position;
+	}
+
+	private int endOfLine(int position, int limit)
+	{
+		while(position < limit && buffer.get(position) != '\n' && buffer.get(position) != '\r')
+			position++;
+		return position;
+	}
+
+	private int skipNewLine(int position, int limit)
+	{
+		if(position < limit && buffer.get(position) == '\r')
+			position++;
+		if(position < limit && buffer.get(position) == '\n')
+			position++;
+		return position;
+	}
+
+	private int trimEnd(int start, int end)
+	{
+		while(end > start && (buffer.get(end - 1) == ' ' || buffer.get(end - 1) == '\t'))
+			end--;
+		return end;
+	}
+
+	/**
+	 * Does the line end with an odd number of backslashes?
+	 */
+	private boolean isContinued(int start, int end)
+	{
+		int backslashes = 0;
+		while(end - backslashes > start && buffer.get(end - 1 - backslashes) == '\\')
+			backslashes++;
+		return backslashes % 2 == 1;
+	}
+
+	private String string(int start, int end)
+	{
+		byte[] bytes = end - start <= value.length ? value : new byte[end - start];
+		for(int i = start; i < end; i++)
+			bytes[i - start] = buffer.get(i);
+		return new String(bytes, 0, end - start, StandardCharsets.UTF_8);
+	}
+
+	private String value(int start, int end, boolean continued)
+	{
+		return continued ? continuedValue(start, end) : string(start, end);
+	}
+
+	/**
+	 * Build a value spanning several lines: the final backslash of each line is removed, as well as the spaces starting the next line
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	private String continuedValue(int start, int end)
+	{
+		int length = 0;
+		int position = start;
+		while(position < end)
+		{
+			int lineEnd = endOfLine(position, end);
+			int contentEnd = trimEnd(position, lineEnd);
+			if(lineEnd < end) // not the last line: remove the final backslash
+				contentEnd--;
+			for(int i = position; i < contentEnd; i++)
+			{
+				if(length == value.length)
+					value = Arrays.copyOf(value, length * 2);
+				value[length++] = buffer.get(i);
+			}
+			position = skipBlanks(skipNewLine(lineEnd, end), end);
+		}
+		return new String(value, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Bytes seen as characters: each byte is a character, and the bytes of the non-ASCII characters are seen as non-ASCII characters
+	 */
+	private static final class Bytes implements CharSequence
+	{
+		private final ByteBuffer buffer;
+		private final int offset;
+		private final int length;
+
+		private Bytes(ByteBuffer buffer)
+		{
+			this(buffer, 0, buffer.limit());
+		}
+
+		private Bytes(ByteBuffer buffer, int offset, int length)
+		{
+			this.buffer = buffer;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public int length()
+		{
+			return length;
+		}
+
+		@Override
+		public char charAt(int index)
+		{
+			return (char) (buffer.get(offset + index) & 0xFF);
+		}
+
+		/**
+		 * A view of the same bytes, without copying them
+		 */
+		@Override
+		public CharSequence subSequence(int start, int end)
+		{
+			if(start < 0 || start > end || end > length)
+				throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+			return new Bytes(buffer, offset + start, end - start);
+		}
+
+		@Override
+		public String toString()
+		{
+			char[] chars = new char[length];
+			for(int i = 0; i < length; i++)
+				chars[i] = charAt(i);
+			return new String(chars);
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package pfg.config;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link DerivedConfigInfo} whose inputs are declared up front, and whose results are cached by input values.
+ * When its inputs take values already seen, the cached result is used instead of running the {@link DerivedConfigInfo.Deriver} again,
+ * which is useful when a few parameters are toggled back and forth. The cache keeps the most recently used results, up to a given size.
+ * The deriver must only read the declared inputs, as its result is assumed to depend on them only.
+ * The cache is shared by all the {@link Config} using this ConfigInfo.
+ * @param <Type>
+ */
+public class MemoizedDerivedConfigInfo<Type> extends DerivedConfigInfo<Type> {
+
+    /**
+     * The ConfigInfo read by the deriver
+     */
+    private final ConfigInfo<?>[] inputs;
+
+    /**
+     * Input values -> result, in access order
+     */
+    private final Map<InputValues, Type> cache;
+
+    /**
+     * Creates a new {@link MemoizedDerivedConfigInfo} with a default value, a type, a dependency function and its inputs
+     * @param defaultValue
+     * Default value of the config element
+     * @param typeClass
+     * The type of the value held by this {@link ConfigInfo}
+     * @param cacheSize
+     * Maximal number of results kept in the cache
+     * @param deriver
+     * Dependency function, that must only read the inputs
+     * @param inputs
+     * The config elements read by the dependency function
+     */
+    public MemoizedDerivedConfigInfo(Type defaultValue, Class<Type> typeClass, int cacheSize, Deriver<Type> deriver, ConfigInfo<?>... inputs) {
+        this("<TO BE NAMED>", defaultValue, typeClass, cacheSize, deriver, inputs);
+    }
+
+    /**
+     * Creates a new named {@link MemoizedDerivedConfigInfo} with a default value, a type, a dependency function and its inputs
+     * @param name
+     * Name of the config element
+     * @param defaultValue
+     * Default value of the config element
+     * @param typeClass
+     * The type of the value held by this {@link ConfigInfo}
+     * @param cacheSize
+     * Maximal number of results kept in the cache
+     * @param deriver
+     * Dependency function, that must only read the inputs
+     * @param inputs
+     * The config elements read by the dependency function
+     */
+    public MemoizedDerivedConfigInfo(String name, Type defaultValue, Class<Type> typeClass, int cacheSize, Deriver<Type> deriver, ConfigInfo<?>... inputs) {
+        super(name, defaultValue, typeClass, deriver);
+        if(cacheSize < 1)
+            throw new IllegalArgumentException("The cache size must be positive : "+cacheSize);
+        this.inputs = inputs.clone();
+        this.cache = new LinkedHashMap<InputValues, Type>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<InputValues, Type> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for the current values of the inputs, or computes it
+     * @param config
+     * The config this element depends on
+     * @return
+     * The computed value
+     */
+    @Override
+    public Type derive(Config config) {
+        Object[] values = new Object[inputs.length];
+        for(int i = 0; i < inputs.length; i++)
+            values[i] = config.getObject(inputs[i]);
+        InputValues key = new InputValues(values);
+        synchronized(cache) {
+            if(cache.containsKey(key))
+                return cache.get(key);
+        }
+        Type value = super.derive(config);
+        synchronized(cache) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Values of the inputs, compared by content so that the array values, read as copies, are found in the cache
+     */
+    private static final class InputValues {
+        private final Object[] values;
+        private final int hash;
+
+        private InputValues(Object[] values) {
+            this.values = values;
+            this.hash = Arrays.deepHashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof InputValues && Arrays.deepEquals(values, ((InputValues) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Returns the inputs of this config element
+     * @return
+     */
+    public ConfigInfo<?>[] getInputs() {
+        return inputs.clone();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations, with a bucket per power of two of nanoseconds. The percentiles are therefore approximated within a factor of two.
+ *
+ */
+public final class TimingHistogram
+{
+	private final AtomicLongArray buckets = new AtomicLongArray(64);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder total = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	TimingHistogram()
+	{}
+
+	/**
+	 * Record a duration
+	 * @param nanos
+	 */
+	void record(long nanos)
+	{
+		if(nanos < 0)
+			nanos = 0;
+		buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(nanos) - (nanos == 0 ? 0 : 1));
+		count.increment();
+		total.add(nanos);
+		max.accumulate(nanos);
+	}
+
+	/**
+	 * Number of recorded durations
+	 * @return
+	 */
+	public long getCount()
+	{
+		return count.sum();
+	}
+
+	/**
+	 * Sum of the recorded durations, in nanoseconds
+	 * @return
+	 */
+	public long getTotalNanos()
+	{
+		return total.sum();
+	}
+
+	/**
+	 * Longest recorded duration, in nanoseconds
+	 * @return
+	 */
+	public long getMaxNanos()
+	{
+		return max.get();
+	}
+
+	/**
+	 * Median of the recorded durations, in nanoseconds
+	 * @return
+	 */
+	public long getMedianNanos()
+	{
+		return getPercentileNanos(50);
+	}
+
+	/**
+	 * 99th percentile of the recorded durations, in nanoseconds
+	 * @return
+	 */
+	public long get99thPercentileNanos()
+	{
+		return getPercentileNanos(99);
+	}
+
+	/**
+	 * Return a percentile of the recorded durations
+	 * @param percentile
+	 * 		between 0 and 100
+	 * @return
+	 * 		the upper bound of the bucket holding this percentile, in nanoseconds, or 0 if nothing is recorded
+	 */
+	public long getPercentileNanos(double percentile)
+	{
+		long[] counts = new long[buckets.length()];
+		long recorded = 0;
+		for(int i = 0; i < counts.length; i++)
+			recorded += counts[i] = buckets.get(i);
+		long rank = (long) Math.ceil(recorded * percentile / 100);
+		long seen = 0;
+		for(int i = 0; i < counts.length; i++)
+		{
+			seen += counts[i];
+			if(seen >= rank && counts[i] > 0)
+				return Math.min(i == 63 ? Long.MAX_VALUE : (2L << i) - 1, getMaxNanos());
+		}
+		return 0;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "count="+getCount()+", median="+getMedianNanos()+"ns, p99="+get99thPercentileNanos()+"ns, max="+getMaxNanos()+"ns";
+	}
+}
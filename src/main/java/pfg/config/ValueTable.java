@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Values of a {@link Config}, addressed by the slots of its {@link ConfigIndex}.
+ * Numeric and boolean values are also kept unboxed in primitive arrays, filled when the value is stored,
+ * so that the primitive getters neither allocate nor parse.
+ * The values that aren't parsed yet ({@link LazyValue}) are unboxed when they are parsed, see {@link #get(int)}.
+ *
+ */
+class ValueTable
+{
+	final ConfigIndex index;
+
+	/**
+	 * The values as objects. The values of the config file that aren't parsed yet are {@link LazyValue}, see {@link #get(int)}
+	 */
+	final Object[] objects;
+
+	/**
+	 * Integer, long, short, byte and boolean (0 or 1) values
+	 */
+	final long[] longs;
+
+	/**
+	 * Double and float values
+	 */
+	final double[] doubles;
+
+	/**
+	 * Kind of the unboxed value of each slot, see {@link #kind(int)}. Atomic, as the lazy values are unboxed by their readers,
+	 * so the unboxed value is written before its kind and read after it
+	 */
+	private final AtomicIntegerArray kinds;
+
+	ValueTable(ConfigIndex index)
+	{
+		this(index, new Object[index.size()], new long[index.size()], new double[index.size()], new AtomicIntegerArray(index.size()));
+	}
+
+	/**
+	 * Table sharing the values of another table, for the tables that read some slots elsewhere (see {@link ConfigOverlay})
+	 * @param shared
+	 */
+	ValueTable(ValueTable shared)
+	{
+		this(shared.index, shared.objects, shared.longs, shared.doubles, shared.kinds);
+	}
+
+	private ValueTable(ConfigIndex index, Object[] objects, long[] longs, double[] doubles, AtomicIntegerArray kinds)
+	{
+		this.index = index;
+		this.objects = objects;
+		this.longs = longs;
+		this.doubles = doubles;
+		this.kinds = kinds;
+	}
+
+	/**
+	 * Return a copy of this table
+	 * @return
+	 */
+	ValueTable copy()
+	{
+		// the kinds first, so that the unboxed values copied after them are at least as recent
+		AtomicIntegerArray kinds = new AtomicIntegerArray(this.kinds.length());
+		for(int slot = 0; slot < kinds.length(); slot++)
+			kinds.lazySet(slot, this.kinds.get(slot));
+		return new ValueTable(index, objects.clone(), longs.clone(), doubles.clone(), kinds);
+	}
+
+	/**
+	 * Return the kind of the unboxed value of a slot. {@link ConfigIndex#OBJECT} if the value is only available as an object
+	 * (null value, value whose class isn't the type of its ConfigInfo, or value not parsed yet)
+	 * @param slot
+	 * @return
+	 */
+	byte kind(int slot)
+	{
+		return (byte) kinds.get(slot);
+	}
+
+	/**
+	 * Return the value of a slot, parsed if it is a {@link LazyValue}. A parsed value is also unboxed,
+	 * so that it is then read by the primitive getters without going through the lazy value
+	 * @param slot
+	 * @return
+	 */
+	Object get(int slot)
+	{
+		Object value = objects[slot];
+		if(!(value instanceof LazyValue))
+			return value;
+		Object parsed = ((LazyValue) value).get();
+		// the same value may be unboxed by several readers
+		if(kinds.get(slot) == ConfigIndex.OBJECT && objects[slot] == value)
+			unbox(slot, parsed);
+		return parsed;
+	}
+
+	/**
+	 * Return a value of the table that can be given outside of the config: a copy if it is an int[], long[], double[] or float[]
+	 * (the arrays parsed by the config, see {@link ArrayParsers}), as these arrays are shared by all the readers.
+	 * The other values, including the arrays of other types, are returned as they are
+	 * @param value
+	 * @return
+	 */
+	static Object copyOf(Object value)
+	{
+		if(value instanceof int[])
+			return ((int[]) value).clone();
+		if(value instanceof long[])
+			return ((long[]) value).clone();
+		if(value instanceof double[])
+			return ((double[]) value).clone();
+		if(value instanceof float[])
+			return ((float[]) value).clone();
+		return value;
+	}
+
+	/**
+	 * Store a value in a slot. The value is also stored unboxed if its class is the wrapper class of the kind of the slot
+	 * @param slot
+	 * @param value
+	 */
+	void set(int slot, Object value)
+	{
+		objects[slot] = value;
+		unbox(slot, value);
+	}
+
+	/**
+	 * Store the unboxed value of a slot, or mark the slot as boxed if the value can't be unboxed
+	 * @param slot
+	 * @param value
+	 */
+	private void unbox(int slot, Object value)
+	{
+		byte kind = index.kinds[slot];
+		if(kind == ConfigIndex.OBJECT || value == null || ConfigIndex.kindOf(value.getClass()) != kind)
+		{
+			kinds.set(slot, ConfigIndex.OBJECT);
+			return;
+		}
+		switch(kind)
+		{
+			case ConfigIndex.BOOLEAN:
+				longs[slot] = (Boolean) value ? 1 : 0;
+				break;
+			case ConfigIndex.DOUBLE:
+			case ConfigIndex.FLOAT:
+				doubles[slot] = ((Number) value).doubleValue();
+				break;
+			default:
+				longs[slot] = ((Number) value).longValue();
+				break;
+		}
+		kinds.set(slot, kind);
+	}
+}
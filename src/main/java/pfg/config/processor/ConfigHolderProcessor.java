@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+
+import pfg.config.ConfigInfo;
+
+/**
+ * Base of the processors generating a class from the ConfigInfo fields of an annotated class
+ *
+ */
+abstract class ConfigHolderProcessor extends AbstractProcessor
+{
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	/**
+	 * Return the public static ConfigInfo fields declared in a class, in declaration order
+	 * @param holder
+	 * @return
+	 */
+	List<VariableElement> configInfoFields(TypeElement holder)
+	{
+		Types types = processingEnv.getTypeUtils();
+		TypeMirror configInfo = types.erasure(configInfoType().asType());
+		List<VariableElement> fields = new ArrayList<>();
+		for(VariableElement field : ElementFilter.fieldsIn(holder.getEnclosedElements()))
+			if(field.getModifiers().contains(Modifier.PUBLIC) && field.getModifiers().contains(Modifier.STATIC)
+					&& types.isAssignable(types.erasure(field.asType()), configInfo))
+				fields.add(field);
+		return fields;
+	}
+
+	TypeElement configInfoType()
+	{
+		return processingEnv.getElementUtils().getTypeElement(ConfigInfo.class.getCanonicalName());
+	}
+
+	/**
+	 * Name of the package of a class, empty for the default package
+	 * @param holder
+	 * @return
+	 */
+	String packageOf(TypeElement holder)
+	{
+		return processingEnv.getElementUtils().getPackageOf(holder).getQualifiedName().toString();
+	}
+
+	/**
+	 * Name of a generated class: the name of the annotated class, with the names of its enclosing classes, followed by a suffix
+	 * @param holder
+	 * @param suffix
+	 * @return
+	 */
+	static String generatedName(TypeElement holder, String suffix)
+	{
+		StringBuilder name = new StringBuilder(holder.getSimpleName());
+		for(Element enclosing = holder.getEnclosingElement(); !(enclosing instanceof PackageElement); enclosing = enclosing.getEnclosingElement())
+			name.insert(0, enclosing.getSimpleName() + "_");
+		return name.append(suffix).toString();
+	}
+}
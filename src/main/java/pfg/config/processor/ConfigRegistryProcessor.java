@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import pfg.config.ConfigInfo;
+import pfg.config.ConfigRegistry;
+
+/**
+ * Generates the registry of the classes annotated with {@link ConfigRegistry}, so that their ConfigInfo are found without reflection.
+ * Enabled by adding this library to the annotation processor path, for example with gradle :
+ * <pre>annotationProcessor 'com.github.Club-INTech:config:v2.0'</pre>
+ *
+ */
+@SupportedAnnotationTypes("pfg.config.ConfigRegistry")
+public class ConfigRegistryProcessor extends ConfigHolderProcessor
+{
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+	{
+		for(Element element : roundEnv.getElementsAnnotatedWith(ConfigRegistry.class))
+		{
+			if(element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.INTERFACE && element.getKind() != ElementKind.ENUM)
+				continue;
+			TypeElement holder = (TypeElement) element;
+			try
+			{
+				generate(holder, element.getAnnotation(ConfigRegistry.class).reformat());
+			}
+			catch(IOException e)
+			{
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can't generate the config registry : " + e.getMessage(), holder);
+			}
+		}
+		return true;
+	}
+
+	private void generate(TypeElement holder, boolean reformat) throws IOException
+	{
+		String packageName = packageOf(holder);
+		String holderName = holder.getQualifiedName().toString();
+		String registryName = generatedName(holder, "Registry");
+		List<VariableElement> fields = configInfoFields(holder);
+
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? registryName : packageName + "." + registryName, holder);
+		try(PrintWriter out = new PrintWriter(file.openWriter()))
+		{
+			if(!packageName.isEmpty())
+			{
+				out.println("package " + packageName + ";");
+				out.println();
+			}
+			out.println("/**");
+			out.println(" * Registry of the ConfigInfo of {@link " + holderName + "}, generated by " + ConfigRegistryProcessor.class.getName() + ". Do not edit");
+			out.println(" */");
+			out.println("public final class " + registryName);
+			out.println("{");
+			out.println("\tprivate static final pfg.config.ConfigInfo[] VALUES = {");
+			for(VariableElement field : fields)
+				out.println("\t\t" + holderName + "." + field.getSimpleName() + ",");
+			out.println("\t};");
+			out.println();
+			out.println("\tstatic");
+			out.println("\t{");
+			for(VariableElement field : fields)
+			{
+				String name = field.getSimpleName().toString();
+				out.println("\t\t" + holderName + "." + name + ".setName(\"" + (reformat ? ConfigInfo.toCamelCase(name) : name) + "\");");
+			}
+			out.println("\t}");
+			out.println();
+			out.println("\tprivate " + registryName + "()");
+			out.println("\t{}");
+			out.println();
+			out.println("\t/**");
+			out.println("\t * Return the ConfigInfo of {@link " + holderName + "}, named after their field");
+			out.println("\t * @return");
+			out.println("\t */");
+			out.println("\tpublic static pfg.config.ConfigInfo[] values()");
+			out.println("\t{");
+			out.println("\t\treturn VALUES.clone();");
+			out.println("\t}");
+			out.println("}");
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2013-2017 Pierre-François Gimenez
+ * Distributed under the MIT License.
+ */
+
+package pfg.config.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import pfg.config.ConfigInfo;
+import pfg.config.ConfigView;
+
+/**
+ * Generates the typed view of the classes annotated with {@link ConfigView}.
+ * The values of the primitive types are read with the unboxed getters of the {@link pfg.config.Config} (such as {@link pfg.config.Config#getIntValue(ConfigInfo)})
+ * and kept in final primitive fields, the other ones with {@link pfg.config.Config#get(ConfigInfo)}.
+ * Enabled by adding this library to the annotation processor path, see {@link ConfigRegistryProcessor}.
+ *
+ */
+@SupportedAnnotationTypes("pfg.config.ConfigView")
+public class ConfigViewProcessor extends ConfigHolderProcessor
+{
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+	{
+		for(Element element : roundEnv.getElementsAnnotatedWith(ConfigView.class))
+		{
+			if(element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.INTERFACE && element.getKind() != ElementKind.ENUM)
+				continue;
+			TypeElement holder = (TypeElement) element;
+			try
+			{
+				generate(holder);
+			}
+			catch(IOException e)
+			{
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can't generate the config view : " + e.getMessage(), holder);
+			}
+		}
+		return true;
+	}
+
+	private void generate(TypeElement holder) throws IOException
+	{
+		String packageName = packageOf(holder);
+		String holderName = holder.getQualifiedName().toString();
+		String viewName = generatedName(holder, "View");
+		List<VariableElement> fields = configInfoFields(holder);
+		String[] names = new String[fields.size()];
+		String[] types = new String[fields.size()];
+		String[] getters = new String[fields.size()];
+		for(int i = 0; i < fields.size(); i++)
+		{
+			VariableElement field = fields.get(i);
+			names[i] = ConfigInfo.toCamelCase(field.getSimpleName().toString());
+			if(SourceVersion.isKeyword(names[i]))
+				names[i] += "_";
+			TypeMirror valueType = valueType(field.asType());
+			String primitive = primitiveOf(valueType);
+			if(primitive != null)
+			{
+				types[i] = primitive;
+				getters[i] = "get" + Character.toUpperCase(primitive.charAt(0)) + primitive.substring(1) + "Value";
+			}
+			else if(valueType == null)
+			{
+				types[i] = "Object";
+				getters[i] = "getObject";
+			}
+			else
+			{
+				types[i] = valueType.toString();
+				getters[i] = "get";
+			}
+		}
+
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? viewName : packageName + "." + viewName, holder);
+		try(PrintWriter out = new PrintWriter(file.openWriter()))
+		{
+			if(!packageName.isEmpty())
+			{
+				out.println("package " + packageName + ";");
+				out.println();
+			}
+			out.println("/**");
+			out.println(" * Immutable typed view of the values of {@link " + holderName + "}, generated by " + ConfigViewProcessor.class.getName() + ". Do not edit");
+			out.println(" */");
+			out.println("public final class " + viewName);
+			out.println("{");
+			for(int i = 0; i < names.length; i++)
+				out.println("\tprivate final " + types[i] + " " + names[i] + ";");
+			out.println();
+			out.println("\t/**");
+			out.println("\t * Read the current values of a config");
+			out.println("\t * @param config");
+			out.println("\t */");
+			out.println("\tpublic " + viewName + "(pfg.config.Config config)");
+			out.println("\t{");
+			for(int i = 0; i < names.length; i++)
+				out.println("\t\t" + names[i] + " = config." + getters[i] + "(" + holderName + "." + fields.get(i).getSimpleName() + ");");
+			out.println("\t}");
+			for(int i = 0; i < names.length; i++)
+			{
+				out.println();
+				out.println("\tpublic " + types[i] + " get" + Character.toUpperCase(names[i].charAt(0)) + names[i].substring(1).replace("_", "") + "()");
+				out.println("\t{");
+				out.println("\t\treturn " + names[i] + ";");
+				out.println("\t}");
+			}
+			out.println("}");
+		}
+	}
+
+	/**
+	 * Return the type of the values of a ConfigInfo type
+	 * @param type
+	 * @return
+	 * 		the type argument of ConfigInfo, or null if it is raw or a wildcard
+	 */
+	private TypeMirror valueType(TypeMirror type)
+	{
+		Types typeUtils = processingEnv.getTypeUtils();
+		if(typeUtils.isSameType(typeUtils.erasure(type), typeUtils.erasure(configInfoType().asType())))
+		{
+			List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+			if(arguments.isEmpty() || arguments.get(0).getKind() != TypeKind.DECLARED && arguments.get(0).getKind() != TypeKind.ARRAY)
+				return null;
+			return arguments.get(0);
+		}
+		for(TypeMirror supertype : typeUtils.directSupertypes(type))
+			if(typeUtils.isAssignable(typeUtils.erasure(supertype), typeUtils.erasure(configInfoType().asType())))
+				return valueType(supertype);
+		return null;
+	}
+
+	/**
+	 * Return the primitive type of the values read unboxed by the Config
+	 * @param valueType
+	 * @return
+	 * 		the primitive type, or null if the values are read as objects
+	 */
+	private String primitiveOf(TypeMirror valueType)
+	{
+		if(valueType == null || valueType.getKind() != TypeKind.DECLARED)
+			return null;
+		String primitive;
+		try
+		{
+			primitive = processingEnv.getTypeUtils().unboxedType(valueType).toString();
+		}
+		catch(IllegalArgumentException e) // not a boxed type
+		{
+			return null;
+		}
+		return primitive.equals("char") ? null : primitive;
+	}
+}
@@ -0,0 +1,109 @@
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pfg.config.BaseConfigInfo;
+import pfg.config.Config;
+import pfg.config.ConfigInfo;
+
+/*
+ * Copyright (C) 2013-2019 Pierre-François Gimenez, Xavier Niochaut
+ * Distributed under the MIT License.
+ */
+
+/**
+ * An example of array values, such as lookup tables
+ * @author Pierre-François Gimenez
+ *
+ */
+
+public class ArrayExample
+{
+	private static final ConfigInfo<double[]> MOTOR_CURVE = new BaseConfigInfo<>("motorCurve", new double[] {0, 1}, double[].class);
+	private static final ConfigInfo<int[]> PINS = new BaseConfigInfo<>("pins", new int[0], int[].class);
+	private static final ConfigInfo<long[]> TIMEOUTS = new BaseConfigInfo<>("timeouts", new long[] {1}, long[].class);
+	private static final ConfigInfo<float[]> WEIGHTS = new BaseConfigInfo<>("weights", new float[] {1f}, float[].class);
+
+	private static final ConfigInfo<?>[] ALL = {MOTOR_CURVE, PINS, TIMEOUTS, WEIGHTS};
+
+	/**
+	 * The arrays are parsed once, and read through read-only views
+	 */
+	@Test
+	public void arrays() throws IOException
+	{
+		Path file = ExampleFiles.write("[default]\n"
+				+ "MOTOR_CURVE = 0.1, 0.25,-3, 1e-3, 0.12345678901234567, NaN\n"
+				+ "PINS = 3,-2147483648, 2147483647\n"
+				+ "TIMEOUTS = \n"
+				+ "WEIGHTS = 0.1, 16777217, 3.4e38\n");
+		Config config = new Config(ALL, false, file.toString(), "default");
+
+		DoubleBuffer curve = config.getDoubleBuffer(MOTOR_CURVE);
+		Assert.assertTrue(curve.isReadOnly());
+		Assert.assertTrue(Arrays.equals(new double[] {0.1, 0.25, -3, 1e-3, 0.12345678901234567, Double.NaN}, config.get(MOTOR_CURVE)));
+		Assert.assertEquals(0.25, curve.get(1), 0);
+		Assert.assertArrayEquals(new int[] {3, Integer.MIN_VALUE, Integer.MAX_VALUE}, config.get(PINS));
+		Assert.assertEquals(0, config.getLongBuffer(TIMEOUTS).remaining());
+		Assert.assertTrue(Arrays.equals(new float[] {0.1f, 16777217f, 3.4e38f}, config.get(WEIGHTS)));
+
+		IntBuffer pins = config.getIntBuffer(PINS);
+		try {
+			pins.put(0, 4);
+			Assert.fail();
+		} catch(ReadOnlyBufferException e) {
+			// the views can't change the value
+		}
+	}
+
+	/**
+	 * The arrays returned by the getters are copies: modifying them doesn't change the config
+	 */
+	@Test
+	public void copies() throws IOException
+	{
+		Path file = ExampleFiles.write("[default]\nPINS = 1, 2\n");
+		Config config = new Config(ALL, false, file.toString(), "default");
+		config.get(PINS)[0] = 3;
+		((int[]) config.getObject(PINS))[1] = 4;
+		config.get(PINS, int[].class)[0] = 5;
+		Assert.assertArrayEquals(new int[] {1, 2}, config.get(PINS));
+		Assert.assertEquals(1, config.getIntBuffer(PINS).get(0));
+	}
+
+	/**
+	 * The values that can't be parsed are replaced by the default value
+	 */
+	@Test
+	public void invalidArrays() throws IOException
+	{
+		Path file = ExampleFiles.write("[default]\n"
+				+ "PINS = 1,,2\n"
+				+ "TIMEOUTS = 9223372036854775808\n"
+				+ "MOTOR_CURVE = 1.5, abc\n");
+		Config config = new Config(ALL, false, file.toString(), "default");
+		Assert.assertArrayEquals(new int[0], config.get(PINS));
+		Assert.assertArrayEquals(new long[] {1}, config.get(TIMEOUTS));
+		Assert.assertTrue(Arrays.equals(new double[] {0, 1}, config.get(MOTOR_CURVE)));
+	}
+
+	/**
+	 * The arrays are compared by content: reading the same arrays again changes nothing
+	 */
+	@Test
+	public void reload() throws IOException
+	{
+		Path file = ExampleFiles.write("[default]\nMOTOR_CURVE = 0.5, 1.5\n");
+		Config config = new Config(ALL, false, file.toString(), "default");
+		Assert.assertTrue(config.reload().isEmpty());
+
+		ExampleFiles.replace(file, "0.5, 1.5", "0.5, 2.5");
+		Assert.assertEquals(1, config.reload().size());
+		Assert.assertEquals(2.5, config.getDoubleBuffer(MOTOR_CURVE).get(1), 0);
+	}
+}
@@ -0,0 +1,107 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pfg.config.Config;
+import pfg.config.ConfigInfoParser;
+import pfg.config.ConfigOptions;
+
+/*
+ * Copyright (C) 2013-2019 Pierre-François Gimenez, Xavier Niochaut
+ * Distributed under the MIT License.
+ */
+
+/**
+ * An example of configs sharing the values read from their config file
+ * @author Pierre-François Gimenez
+ *
+ */
+
+public class CacheExample
+{
+	private final AtomicInteger parsed = new AtomicInteger();
+	private final Map<Class<?>, ConfigInfoParser> parsers = new HashMap<>();
+
+	public CacheExample()
+	{
+		parsers.put(Integer.TYPE, (ConfigInfoParser<Integer>) s -> {
+			parsed.incrementAndGet();
+			return Integer.parseInt(s);
+		});
+		parsers.put(Boolean.TYPE, (ConfigInfoParser<Boolean>) Boolean::parseBoolean);
+	}
+
+	/**
+	 * The configs built again from the same file don't parse it again
+	 */
+	@Test
+	public void cacheHit() throws IOException
+	{
+		Path file = ExampleFiles.copyExample();
+		ConfigOptions options = new ConfigOptions().cached(true);
+		Config config = new Config(ConfigInfoExample.values(), false, file.toString(), parsers, options, "default", "example");
+		int parsedOnce = parsed.get();
+		Assert.assertTrue(parsedOnce > 0);
+
+		Config copy = new Config(ConfigInfoExample.values(), false, file.toString(), parsers, options, "default", "example");
+		Assert.assertEquals(parsedOnce, parsed.get());
+		Assert.assertEquals(42, copy.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+		Assert.assertEquals("file-value", copy.get(ConfigInfoExample.SOME_STRING_VALUE));
+		Assert.assertFalse(copy.get(ConfigInfoExample.IS_ODD));
+
+		// the overrides of a config don't change the cached values
+		config.override(ConfigInfoExample.SOME_INTEGER_VALUE, 3);
+		copy = new Config(ConfigInfoExample.values(), false, file.toString(), parsers, options, "default", "example");
+		Assert.assertEquals(42, copy.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+
+		// other profiles
+		copy = new Config(ConfigInfoExample.values(), false, file.toString(), parsers, options, "default");
+		Assert.assertTrue(parsed.get() > parsedOnce);
+		Assert.assertEquals(18754, copy.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+	}
+
+	/**
+	 * The file is read again once modified
+	 */
+	@Test
+	public void invalidation() throws IOException
+	{
+		Path file = ExampleFiles.copyExample();
+		ConfigOptions options = new ConfigOptions().cached(true);
+		new Config(ConfigInfoExample.values(), false, file.toString(), parsers, options, "default", "example");
+		int parsedOnce = parsed.get();
+
+		ExampleFiles.replace(file, "SOME_INTEGER_VALUE = 42", "SOME_INTEGER_VALUE = 43");
+		Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10000));
+		Config config = new Config(ConfigInfoExample.values(), false, file.toString(), parsers, options, "default", "example");
+		Assert.assertTrue(parsed.get() > parsedOnce);
+		Assert.assertEquals(43, config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+		Assert.assertTrue(config.get(ConfigInfoExample.IS_ODD));
+	}
+
+	/**
+	 * The modification time and the size of the file are compared as a pair: a later size and an earlier time don't compensate each other
+	 */
+	@Test
+	public void stampPair() throws IOException
+	{
+		Path file = ExampleFiles.copyExample();
+		ConfigOptions options = new ConfigOptions().cached(true);
+		new Config(ConfigInfoExample.values(), false, file.toString(), parsers, options, "default", "example");
+
+		FileTime modified = Files.getLastModifiedTime(file);
+		ExampleFiles.replace(file, "SOME_INTEGER_VALUE = 42", "SOME_INTEGER_VALUE = 43");
+		Files.write(file, "# thirty-one bytes of comments\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+		Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() - 1));
+		Config config = new Config(ConfigInfoExample.values(), false, file.toString(), parsers, options, "default", "example");
+		Assert.assertEquals(43, config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+	}
+}
@@ -0,0 +1,71 @@
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pfg.config.*;
+
+/**
+ * Example of a config read by several threads while another one overrides it
+ * @author Pierre-François Gimenez
+ */
+public class ConcurrencyExample {
+
+    public static final ConfigInfo<Integer> WIDTH = new BaseConfigInfo<>(10, Integer.class);
+    public static final ConfigInfo<Integer> HEIGHT = new BaseConfigInfo<>(10, Integer.class);
+    public static final ConfigInfo<Integer> AREA = new DerivedConfigInfo<>(100, Integer.class, c -> c.get(WIDTH) * c.get(HEIGHT));
+
+    /**
+     * The values read at once by {@link Config#loadInto(Object)}
+     */
+    public static class Dimensions {
+        @Configurable
+        int width;
+        @Configurable
+        int height;
+        @Configurable
+        int area;
+    }
+
+    @Test
+    public void readersNeverSeeHalfAppliedBatches() throws InterruptedException {
+        Config config = new Config(ConfigInfo.findAllIn(ConcurrencyExample.class), false);
+        config.setConcurrent(true);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> error = new AtomicReference<>();
+        Thread[] readers = new Thread[4];
+        for(int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                Dimensions dimensions = new Dimensions();
+                while(running.get()) {
+                    // the width and the height are always overridden together with the same value,
+                    // so a snapshot with different values, or an area that doesn't match them, would be a half-applied batch
+                    try {
+                        config.loadInto(dimensions);
+                    } catch(ReflectiveOperationException e) {
+                        error.set(e.toString());
+                        return;
+                    }
+                    if(dimensions.width != dimensions.height || dimensions.area != dimensions.width * dimensions.height)
+                        error.set("Inconsistent state: "+dimensions.width+" x "+dimensions.height+" = "+dimensions.area);
+                }
+            });
+            readers[i].start();
+        }
+
+        HashMap<ConfigInfo, Object> batch = new HashMap<>();
+        for(int size = 10; size < 20000; size++) {
+            batch.put(WIDTH, size);
+            batch.put(HEIGHT, size);
+            config.override(batch);
+        }
+        running.set(false);
+        for(Thread reader : readers)
+            reader.join();
+
+        Assert.assertNull(error.get());
+        Assert.assertEquals(19999 * 19999, config.getIntValue(AREA));
+    }
+}
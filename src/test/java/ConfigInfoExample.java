@@ -1,5 +1,7 @@
 import pfg.config.BaseConfigInfo;
 import pfg.config.ConfigInfo;
+import pfg.config.ConfigRegistry;
+import pfg.config.ConfigView;
 import pfg.config.DerivedConfigInfo;
 
 /*
@@ -12,6 +14,8 @@ import pfg.config.DerivedConfigInfo;
  * @author Pierre-François Gimenez, Xavier "jglrxavpok" Niochaut
  *
  */
+@ConfigRegistry
+@ConfigView
 public final class ConfigInfoExample
 {
 	public static ConfigInfo<Integer> SOME_INTEGER_VALUE = new BaseConfigInfo<>(1337, Integer.TYPE);
@@ -22,6 +26,6 @@ public final class ConfigInfoExample
 	public static ConfigInfo<Boolean> IS_ODD = new DerivedConfigInfo<>(false, Boolean.TYPE, config -> config.get(SOME_INTEGER_VALUE) % 2 == 1);
 
 	public static ConfigInfo[] values() {
-		return ConfigInfo.findAllIn(ConfigInfoExample.class);
+		return ConfigInfoExampleRegistry.values(); // generated at compile time, same as ConfigInfo.findAllIn(ConfigInfoExample.class)
 	}
 }
@@ -0,0 +1,181 @@
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pfg.config.*;
+
+/**
+ * Example of derived values depending on other derived values
+ * @author Pierre-François Gimenez
+ */
+public class DerivationExample {
+
+    private static final AtomicInteger PERIMETER_DERIVATIONS = new AtomicInteger();
+
+    public static final ConfigInfo<Integer> WIDTH = new BaseConfigInfo<>(2, Integer.class);
+    public static final ConfigInfo<Integer> HEIGHT = new BaseConfigInfo<>(3, Integer.class);
+    public static final ConfigInfo<String> UNRELATED = new BaseConfigInfo<>("unrelated", String.class);
+    // declared before the derived value it depends on
+    public static final ConfigInfo<Integer> DOUBLE_AREA = new DerivedConfigInfo<>(0, Integer.class, c -> 2 * c.get(DerivationExample.AREA));
+    public static final ConfigInfo<Integer> AREA = new DerivedConfigInfo<>(0, Integer.class, c -> c.get(WIDTH) * c.get(HEIGHT));
+    public static final ConfigInfo<Integer> PERIMETER = new DerivedConfigInfo<>(0, Integer.class, c -> {
+        PERIMETER_DERIVATIONS.incrementAndGet();
+        return 2 * (c.get(WIDTH) + c.get(HEIGHT));
+    });
+
+    @Test
+    public void derivationOrderAndDependencies() {
+        Config config = new Config(ConfigInfo.findAllIn(DerivationExample.class), false);
+        config.override(WIDTH, 4);
+        Assert.assertEquals(12, (int) config.get(AREA));
+        Assert.assertEquals(24, (int) config.get(DOUBLE_AREA));
+        Assert.assertEquals(14, (int) config.get(PERIMETER));
+
+        // the perimeter doesn't depend on this value, it isn't derived again
+        int derivations = PERIMETER_DERIVATIONS.get();
+        config.override(UNRELATED, "still unrelated");
+        Assert.assertEquals(derivations, PERIMETER_DERIVATIONS.get());
+
+        config.override(HEIGHT, 5);
+        Assert.assertEquals(derivations + 1, PERIMETER_DERIVATIONS.get());
+        Assert.assertEquals(40, (int) config.get(DOUBLE_AREA));
+        Assert.assertEquals(18, (int) config.get(PERIMETER));
+    }
+
+    @Test
+    public void transactionsDeriveOnce() {
+        Config config = new Config(ConfigInfo.findAllIn(DerivationExample.class), false);
+        config.override(WIDTH, 1);
+
+        int derivations = PERIMETER_DERIVATIONS.get();
+        Set<ConfigInfo<?>> changed = config.edit().set(WIDTH, 10).set(HEIGHT, 20).set(UNRELATED, "unrelated").commit();
+        Assert.assertEquals(derivations + 1, PERIMETER_DERIVATIONS.get());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(WIDTH, HEIGHT, AREA, DOUBLE_AREA, PERIMETER)), changed);
+        Assert.assertEquals(400, (int) config.get(DOUBLE_AREA));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void transactionsAreValidated() {
+        Config config = new Config(ConfigInfo.findAllIn(DerivationExample.class), false);
+        ConfigInfo rawHeight = HEIGHT;
+        try {
+            config.edit().set(WIDTH, 10).set(rawHeight, "twenty").commit();
+            Assert.fail();
+        } catch(IllegalArgumentException e) {
+            // nothing has been applied
+            Assert.assertEquals(2, (int) config.get(WIDTH));
+        }
+    }
+
+    private static final ConfigInfo<Integer> PING = new DerivedConfigInfo<>("ping", 0, Integer.class, c -> c.get(DerivationExample.PONG));
+    private static final ConfigInfo<Integer> PONG = new DerivedConfigInfo<>("pong", 0, Integer.class, c -> c.get(PING) + c.get(WIDTH));
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cyclesAreDetected() {
+        Config config = new Config(new ConfigInfo[] {WIDTH, PING, PONG}, false);
+        config.override(WIDTH, 1);
+    }
+
+    @Test
+    public void parallelDerivation() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Config config = new Config(ConfigInfo.findAllIn(DerivationExample.class), false);
+            config.setDerivationExecutor(executor);
+            config.override(WIDTH, 4);
+            Assert.assertEquals(12, (int) config.get(AREA));
+            Assert.assertEquals(24, (int) config.get(DOUBLE_AREA));
+            Assert.assertEquals(14, (int) config.get(PERIMETER));
+
+            config.edit().set(WIDTH, 10).set(HEIGHT, 20).commit();
+            Assert.assertEquals(400, (int) config.get(DOUBLE_AREA));
+            Assert.assertEquals(60, (int) config.get(PERIMETER));
+            Assert.assertEquals(new HashSet<>(Arrays.asList(DOUBLE_AREA, AREA, PERIMETER)), config.getDerivationDurations().keySet());
+
+            // the cycles are still detected
+            Config cyclic = new Config(new ConfigInfo[] {WIDTH, PING, PONG}, false);
+            cyclic.setDerivationExecutor(executor);
+            try {
+                cyclic.override(WIDTH, 1);
+                Assert.fail();
+            } catch(IllegalArgumentException e) {
+                // expected
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelDerivationWhenLoading() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ConfigOptions options = new ConfigOptions().parallelDerivation(executor).sources(ConfigSource.arguments("WIDTH=4"));
+            Config config = new Config(ConfigInfo.findAllIn(DerivationExample.class), false, null, options);
+            Assert.assertEquals(12, (int) config.get(AREA));
+            Assert.assertEquals(24, (int) config.get(DOUBLE_AREA));
+            Assert.assertEquals(14, (int) config.get(PERIMETER));
+
+            // the dependencies have been recorded
+            config.override(HEIGHT, 5);
+            Assert.assertEquals(40, (int) config.get(DOUBLE_AREA));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static final AtomicInteger DIAGONAL_DERIVATIONS = new AtomicInteger();
+    private static final ConfigInfo<Double> DIAGONAL = new MemoizedDerivedConfigInfo<>("diagonal", 0., Double.class, 2, c -> {
+        DIAGONAL_DERIVATIONS.incrementAndGet();
+        return Math.hypot(c.get(WIDTH), c.get(HEIGHT));
+    }, WIDTH, HEIGHT);
+
+    @Test
+    public void memoizedDerivation() {
+        Config config = new Config(new ConfigInfo[] {WIDTH, HEIGHT, UNRELATED, DIAGONAL}, false);
+        config.override(WIDTH, 3);
+        config.override(HEIGHT, 4);
+        int derivations = DIAGONAL_DERIVATIONS.get();
+
+        // toggling between values already seen uses the cached results
+        config.override(HEIGHT, 3);
+        config.override(HEIGHT, 4);
+        config.override(HEIGHT, 3);
+        Assert.assertEquals(derivations, DIAGONAL_DERIVATIONS.get());
+        config.override(UNRELATED, "still unrelated");
+        Assert.assertEquals(derivations, DIAGONAL_DERIVATIONS.get());
+        config.override(HEIGHT, 4);
+        Assert.assertEquals(5, config.get(DIAGONAL), 0);
+
+        // the least recently used result is evicted
+        config.override(HEIGHT, 5);
+        config.override(HEIGHT, 3);
+        Assert.assertEquals(derivations + 2, DIAGONAL_DERIVATIONS.get());
+    }
+
+    private static final AtomicInteger SUM_DERIVATIONS = new AtomicInteger();
+    private static final ConfigInfo<int[]> PINS = new BaseConfigInfo<>("pins", new int[] {1, 2}, int[].class);
+    private static final ConfigInfo<Integer> PIN_SUM = new MemoizedDerivedConfigInfo<>("pinSum", 0, Integer.class, 2, c -> {
+        SUM_DERIVATIONS.incrementAndGet();
+        return Arrays.stream(c.get(PINS)).sum();
+    }, PINS);
+
+    @Test
+    public void memoizedDerivationOfArray() {
+        Config config = new Config(new ConfigInfo[] {PINS, PIN_SUM}, false);
+        config.override(PINS, new int[] {3, 4});
+        config.override(PINS, new int[] {5, 6});
+        int derivations = SUM_DERIVATIONS.get();
+
+        // the arrays are compared by content
+        config.override(PINS, new int[] {3, 4});
+        Assert.assertEquals(7, (int) config.get(PIN_SUM));
+        Assert.assertEquals(derivations, SUM_DERIVATIONS.get());
+    }
+}
@@ -1,6 +1,15 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
 import org.junit.Assert;
 import org.junit.Test;
+import pfg.config.BaseConfigInfo;
 import pfg.config.Config;
+import pfg.config.ConfigInfo;
+import pfg.config.ConfigOptions;
 
 /*
  * Copyright (C) 2013-2019 Pierre-François Gimenez, Xavier Niochaut
@@ -98,4 +107,106 @@ public class Example
 		Assert.assertEquals(18754, valInteger);
 	}
 
+	/**
+	 * The primitive getters read the values parsed at load time, without boxing them
+	 */
+	@Test
+	public void primitiveGetters()
+	{
+		Config config = new Config(ConfigInfoExample.values(), false, "/config_example.ini", "default", "example");
+
+		Assert.assertEquals(42, config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+		Assert.assertEquals(255.42, config.getDoubleValue(ConfigInfoExample.SOME_DOUBLE_VALUE), 0.0001);
+		Assert.assertTrue(config.getBooleanValue(ConfigInfoExample.SOME_BOOLEAN_VALUE));
+
+		config.override(ConfigInfoExample.SOME_INTEGER_VALUE, 7);
+		Assert.assertEquals(7, config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+	}
+
+	/**
+	 * A value of another class than the type of its key isn't converted by the primitive getters
+	 */
+	@Test(expected = ClassCastException.class)
+	@SuppressWarnings("unchecked")
+	public void primitiveGetterOfAnotherClass()
+	{
+		Config config = new Config(ConfigInfoExample.values(), false, "/config_example.ini", "default");
+		HashMap<ConfigInfo, Object> override = new HashMap<>();
+		override.put(ConfigInfoExample.SOME_INTEGER_VALUE, 5_000_000_000L);
+		config.override(override);
+		config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE);
+	}
+
+	/**
+	 * The config file can also be mapped in memory, with the same result
+	 */
+	@Test
+	public void memoryMappedLoading()
+	{
+		for(String lastProfile : new String[] {"example", "error"})
+		{
+			Config streamed = new Config(ConfigInfoExample.values(), false, "/config_example.ini", "default", lastProfile);
+			Config mapped = new Config(ConfigInfoExample.values(), false, "/config_example.ini", new ConfigOptions().memoryMapped(true), "default", lastProfile);
+			for(ConfigInfo info : ConfigInfoExample.values())
+				Assert.assertEquals(streamed.getObject(info), mapped.getObject(info));
+		}
+	}
+
+	/**
+	 * The keys of the config file can be written in snake_case, in upper or lower case, or exactly as their name
+	 */
+	@Test
+	public void keySpellings() throws IOException
+	{
+		Path file = ExampleFiles.write("[default]\nsome_integer_VALUE = 1\nsome_double_value = 2.5\nsomeStringValue = camel\nSOME_BOOLEAN_VALUE = true\n");
+		for(ConfigOptions options : new ConfigOptions[] {new ConfigOptions(), new ConfigOptions().memoryMapped(true)})
+		{
+			Config config = new Config(ConfigInfoExample.values(), false, file.toString(), options, "default");
+			Assert.assertEquals(1, config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+			Assert.assertEquals(2.5, config.getDoubleValue(ConfigInfoExample.SOME_DOUBLE_VALUE), 0);
+			Assert.assertEquals("camel", config.get(ConfigInfoExample.SOME_STRING_VALUE));
+			Assert.assertTrue(config.getBooleanValue(ConfigInfoExample.SOME_BOOLEAN_VALUE));
+		}
+	}
+
+	/**
+	 * The registry generated at compile time gives the same ConfigInfo as the reflection, whose result is cached
+	 */
+	@Test
+	public void registry()
+	{
+		ConfigInfo[] found = ConfigInfo.findAllIn(ConfigInfoExample.class);
+		Assert.assertEquals(new HashSet<>(Arrays.asList(found)), new HashSet<>(Arrays.asList(ConfigInfoExample.values())));
+		Assert.assertArrayEquals(found, ConfigInfo.findAllIn(ConfigInfoExample.class));
+		Assert.assertEquals("someIntegerValue", ConfigInfoExample.SOME_INTEGER_VALUE.toString());
+
+		// only the static fields are ConfigInfo of the class
+		Assert.assertEquals(1, ConfigInfo.findAllIn(Holder.class).length);
+		Assert.assertEquals("KEY", ConfigInfo.findAllIn(Holder.class, false)[0].toString());
+	}
+
+	/**
+	 * The view generated at compile time holds the values of the config when it is built
+	 */
+	@Test
+	public void typedView()
+	{
+		Config config = new Config(ConfigInfoExample.values(), false, "/config_example.ini", "default", "example");
+		ConfigInfoExampleView view = new ConfigInfoExampleView(config);
+		Assert.assertEquals(42, view.getSomeIntegerValue());
+		Assert.assertEquals(config.getDoubleValue(ConfigInfoExample.SOME_DOUBLE_VALUE), view.getSomeDoubleValue(), 0);
+		Assert.assertEquals("file-value", view.getSomeStringValue());
+		Assert.assertTrue(view.getSomeBooleanValue());
+		Assert.assertFalse(view.getIsOdd());
+
+		config.override(ConfigInfoExample.SOME_INTEGER_VALUE, 43);
+		Assert.assertEquals(42, view.getSomeIntegerValue());
+		Assert.assertTrue(new ConfigInfoExampleView(config).getIsOdd());
+	}
+
+	public static class Holder
+	{
+		public static final ConfigInfo<Integer> KEY = new BaseConfigInfo<>(0, Integer.TYPE);
+		public final ConfigInfo<Integer> notAKey = new BaseConfigInfo<>(0, Integer.TYPE);
+	}
 }
@@ -0,0 +1,78 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/*
+ * Copyright (C) 2013-2019 Pierre-François Gimenez, Xavier Niochaut
+ * Distributed under the MIT License.
+ */
+
+/**
+ * Temporary config files of the examples, deleted when the tests end
+ * @author Pierre-François Gimenez
+ *
+ */
+
+public final class ExampleFiles
+{
+	private ExampleFiles()
+	{}
+
+	/**
+	 * Create an empty temporary file
+	 * @param suffix
+	 * @return
+	 * @throws IOException
+	 */
+	public static Path create(String suffix) throws IOException
+	{
+		Path file = File.createTempFile("config_example", suffix).toPath();
+		file.toFile().deleteOnExit();
+		return file;
+	}
+
+	/**
+	 * Create a temporary config file with some content
+	 * @param content
+	 * @return
+	 * @throws IOException
+	 */
+	public static Path write(String content) throws IOException
+	{
+		Path file = create(".ini");
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	/**
+	 * Create a temporary copy of the config file "config_example.ini", that can be modified
+	 * @return
+	 * @throws IOException
+	 */
+	public static Path copyExample() throws IOException
+	{
+		Path file = create(".ini");
+		try(InputStream is = ExampleFiles.class.getResourceAsStream("/config_example.ini"))
+		{
+			Files.copy(is, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		return file;
+	}
+
+	/**
+	 * Replace some text of a file
+	 * @param file
+	 * @param from
+	 * @param to
+	 * @throws IOException
+	 */
+	public static void replace(Path file, String from, String to) throws IOException
+	{
+		String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+		Files.write(file, content.replace(from, to).getBytes(StandardCharsets.UTF_8));
+	}
+}
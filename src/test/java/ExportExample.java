@@ -0,0 +1,94 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pfg.config.BaseConfigInfo;
+import pfg.config.Config;
+import pfg.config.ConfigExport;
+import pfg.config.ConfigInfo;
+import pfg.config.ConfigLayout;
+import pfg.config.DerivedConfigInfo;
+
+/*
+ * Copyright (C) 2013-2019 Pierre-François Gimenez, Xavier Niochaut
+ * Distributed under the MIT License.
+ */
+
+/**
+ * An example of the numeric values of a config exported into a buffer, for a C reader
+ * @author Pierre-François Gimenez
+ *
+ */
+
+public class ExportExample
+{
+	private static final ConfigInfo<Boolean> ENABLED = new BaseConfigInfo<>("enabled", true, Boolean.TYPE);
+	private static final ConfigInfo<Double> GAIN = new BaseConfigInfo<>("gain", 1.5, Double.TYPE);
+	private static final ConfigInfo<String> NAME = new BaseConfigInfo<>("name", "robot", String.class);
+	private static final ConfigInfo<Integer> PERIOD = new BaseConfigInfo<>("period", 20, Integer.TYPE);
+	private static final ConfigInfo<Float> RATIO = new BaseConfigInfo<>("ratio", 0.5f, Float.TYPE);
+	private static final ConfigInfo<Long> FREQUENCY = new DerivedConfigInfo<>("frequency", 0L, Long.TYPE, config -> 1000L / config.getIntValue(PERIOD));
+
+	private static final ConfigInfo<?>[] ALL = {ENABLED, GAIN, NAME, PERIOD, RATIO, FREQUENCY};
+
+	/**
+	 * The values are laid out in slot order, aligned as in a C struct
+	 */
+	@Test
+	public void layout()
+	{
+		ConfigLayout layout = new Config(ALL, false).getLayout();
+		Assert.assertEquals(0, layout.offsetOf(ENABLED));
+		Assert.assertEquals(8, layout.offsetOf(GAIN));
+		Assert.assertEquals(-1, layout.offsetOf(NAME));
+		Assert.assertEquals(16, layout.offsetOf(PERIOD));
+		Assert.assertEquals(20, layout.offsetOf(RATIO));
+		Assert.assertEquals(24, layout.offsetOf(FREQUENCY));
+		Assert.assertEquals(32, layout.size());
+		Assert.assertEquals(5, layout.getConfigInfo().size());
+
+		String struct = layout.toCStruct("robot_config");
+		Assert.assertTrue(struct.contains("uint8_t enabled; // offset 0"));
+		Assert.assertTrue(struct.contains("uint8_t _pad0[7];"));
+		Assert.assertTrue(struct.contains("int64_t frequency; // offset 24"));
+		Assert.assertTrue(struct.contains("#define ROBOT_CONFIG_SIZE 32"));
+	}
+
+	/**
+	 * Only the values that changed are written again
+	 */
+	@Test
+	public void export()
+	{
+		Config config = new Config(ALL, false);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(40).order(ByteOrder.nativeOrder());
+		buffer.position(8);
+		ConfigExport export = config.export(buffer);
+		Assert.assertEquals(8, buffer.position());
+		Assert.assertEquals(1, buffer.get(8));
+		Assert.assertEquals(1.5, buffer.getDouble(16), 0);
+		Assert.assertEquals(20, buffer.getInt(24));
+		Assert.assertEquals(0.5f, buffer.getFloat(28), 0);
+		Assert.assertEquals(0, buffer.getLong(32)); // not derived yet, without config file
+
+		Assert.assertEquals(0, export.update());
+		config.override(PERIOD, 10);
+		// the period and the derived frequency
+		Assert.assertEquals(2, export.update());
+		Assert.assertEquals(10, buffer.getInt(24));
+		Assert.assertEquals(100, buffer.getLong(32));
+
+		// the views with overrides can be exported too
+		ByteBuffer view = ByteBuffer.allocate(config.getLayout().size());
+		config.withOverrides(ENABLED, false).export(view);
+		Assert.assertEquals(0, view.get(0));
+		Assert.assertEquals(10, view.getInt(16));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void bufferTooSmall()
+	{
+		new Config(ALL, false).export(ByteBuffer.allocate(16));
+	}
+}
@@ -0,0 +1,122 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pfg.config.Config;
+import pfg.config.ConfigInfoParser;
+import pfg.config.ConfigOptions;
+
+/*
+ * Copyright (C) 2013-2019 Pierre-François Gimenez, Xavier Niochaut
+ * Distributed under the MIT License.
+ */
+
+/**
+ * An example of values parsed the first time they are read
+ * @author Pierre-François Gimenez
+ *
+ */
+
+public class LazyParsingExample
+{
+	private final AtomicInteger doubleParses = new AtomicInteger();
+
+	private Config load(ConfigOptions options, String... profiles) throws IOException
+	{
+		Path file = ExampleFiles.write("[default]\nSOME_DOUBLE_VALUE = 1.5\n[example]\nSOME_DOUBLE_VALUE = 2.5\n[error]\nSOME_DOUBLE_VALUE = abc\n");
+
+		Map<Class<?>, ConfigInfoParser> parsers = new HashMap<>();
+		parsers.put(Integer.TYPE, Integer::parseInt);
+		parsers.put(Boolean.TYPE, Boolean::parseBoolean);
+		parsers.put(String.class, str -> str);
+		parsers.put(Double.TYPE, str -> {
+			doubleParses.incrementAndGet();
+			return Double.parseDouble(str);
+		});
+		return new Config(ConfigInfoExample.values(), false, file.toString(), parsers, options, profiles);
+	}
+
+	/**
+	 * Only the value of the last profile is parsed, once, when it is first read
+	 */
+	@Test
+	public void parsedOnFirstRead() throws IOException
+	{
+		Config config = load(new ConfigOptions().lazy(true), "default", "example");
+		Assert.assertEquals(0, doubleParses.get());
+
+		Assert.assertEquals(2.5, config.getDoubleValue(ConfigInfoExample.SOME_DOUBLE_VALUE), 0);
+		Assert.assertEquals(2.5, config.get(ConfigInfoExample.SOME_DOUBLE_VALUE), 0);
+		Assert.assertEquals(1, doubleParses.get());
+		config.validateAll();
+	}
+
+	/**
+	 * Once parsed, the value is read unboxed by every thread, including from the copies of the values made by the concurrent mode
+	 */
+	@Test
+	public void readByManyThreads() throws IOException, InterruptedException
+	{
+		Config config = load(new ConfigOptions().lazy(true), "default", "example");
+		config.setConcurrent(true);
+		AtomicInteger errors = new AtomicInteger();
+		Thread[] readers = new Thread[4];
+		for(int i = 0; i < readers.length; i++)
+		{
+			readers[i] = new Thread(() -> {
+				for(int j = 0; j < 10000; j++)
+					if(config.getDoubleValue(ConfigInfoExample.SOME_DOUBLE_VALUE) != 2.5)
+						errors.incrementAndGet();
+			});
+			readers[i].start();
+		}
+		for(int j = 0; j < 100; j++)
+			config.override(ConfigInfoExample.SOME_INTEGER_VALUE, j);
+		for(Thread reader : readers)
+			reader.join();
+		Assert.assertEquals(0, errors.get());
+		Assert.assertEquals(1, doubleParses.get());
+		Assert.assertEquals(2.5, config.getDoubleValue(ConfigInfoExample.SOME_DOUBLE_VALUE), 0);
+	}
+
+	/**
+	 * A value that can't be parsed is replaced by the value of the previous profile, as when the values are parsed at loading
+	 */
+	@Test
+	public void noOverrideOnError() throws IOException
+	{
+		Config config = load(new ConfigOptions().lazy(true), "default", "error");
+		Assert.assertEquals(1.5, config.getDoubleValue(ConfigInfoExample.SOME_DOUBLE_VALUE), 0);
+		try
+		{
+			config.validateAll();
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("abc"));
+		}
+	}
+
+	/**
+	 * The errors are also reported when the values are parsed at loading
+	 */
+	@Test
+	public void validateEagerLoading() throws IOException
+	{
+		load(new ConfigOptions(), "default", "example").validateAll();
+		try
+		{
+			load(new ConfigOptions(), "default", "error").validateAll();
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("abc"));
+		}
+	}
+}
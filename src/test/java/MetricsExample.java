@@ -0,0 +1,101 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pfg.config.Config;
+import pfg.config.ConfigMetrics;
+import pfg.config.ConfigOptions;
+import pfg.config.Configurable;
+
+/*
+ * Copyright (C) 2013-2019 Pierre-François Gimenez, Xavier Niochaut
+ * Distributed under the MIT License.
+ */
+
+/**
+ * An example of usage and timing metrics
+ * @author Pierre-François Gimenez
+ *
+ */
+
+public class MetricsExample
+{
+	private Config load(ConfigOptions options) throws IOException
+	{
+		Path file = ExampleFiles.write("[default]\nSOME_INTEGER_VALUE = 41\nSOME_DOUBLE_VALUE = abc\n");
+		return new Config(ConfigInfoExample.values(), false, file.toString(), options, "default");
+	}
+
+	@Test
+	public void disabledByDefault() throws IOException
+	{
+		Assert.assertNull(load(new ConfigOptions()).getMetrics());
+	}
+
+	@Test
+	public void countersAndTimings() throws IOException
+	{
+		Config config = load(new ConfigOptions().metrics(true));
+		ConfigMetrics metrics = config.getMetrics();
+		Assert.assertEquals(1, metrics.getLoadTimes().getCount());
+		Assert.assertEquals(2, metrics.getParseTimes().getCount());
+		Assert.assertEquals(1, metrics.getParseFailureCount());
+		Assert.assertEquals(1, metrics.getDerivationTimes().getCount());
+
+		long derivationReads = metrics.getReadCount(ConfigInfoExample.SOME_INTEGER_VALUE); // read by IS_ODD
+		for(int i = 0; i < 10; i++)
+			config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE);
+		Assert.assertEquals(derivationReads + 10, metrics.getReadCount(ConfigInfoExample.SOME_INTEGER_VALUE));
+		Assert.assertEquals(0, metrics.getReadCount(ConfigInfoExample.SOME_STRING_VALUE));
+		Assert.assertEquals(Long.valueOf(0), metrics.getReadCounts().get("someStringValue"));
+
+		config.override(ConfigInfoExample.SOME_INTEGER_VALUE, 42);
+		config.edit().set(ConfigInfoExample.SOME_INTEGER_VALUE, 43).set(ConfigInfoExample.SOME_BOOLEAN_VALUE, true).commit();
+		Assert.assertEquals(3, metrics.getOverrideCount());
+		Assert.assertEquals(3, metrics.getDerivationTimes().getCount());
+		Assert.assertTrue(metrics.getDerivationTimes().getMedianNanos() <= metrics.getDerivationTimes().getMaxNanos());
+	}
+
+	private static class Holder
+	{
+		@Configurable("someIntegerValue")
+		private int value;
+	}
+
+	@Test
+	public void loadedFields() throws Exception
+	{
+		Config config = load(new ConfigOptions().metrics(true));
+		ConfigMetrics metrics = config.getMetrics();
+		long reads = metrics.getReadCount(ConfigInfoExample.SOME_INTEGER_VALUE);
+		Holder holder = new Holder();
+		config.loadInto(holder);
+		Assert.assertEquals(41, holder.value);
+		Assert.assertEquals(reads + 1, metrics.getReadCount(ConfigInfoExample.SOME_INTEGER_VALUE));
+	}
+
+	@Test
+	public void mxBean() throws Exception
+	{
+		Config config = load(new ConfigOptions().metrics(true));
+		config.getString(ConfigInfoExample.SOME_STRING_VALUE);
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName("pfg.config:type=ConfigMetrics,name=MetricsExample");
+		server.registerMBean(config.getMetrics(), name);
+		try
+		{
+			Assert.assertEquals(1L, server.getAttribute(name, "ParseFailureCount"));
+			Assert.assertEquals(1L, ((CompositeData) server.getAttribute(name, "LoadTimes")).get("count"));
+		}
+		finally
+		{
+			server.unregisterMBean(name);
+		}
+	}
+}
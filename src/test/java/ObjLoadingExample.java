@@ -13,6 +13,33 @@ public class ObjLoadingExample {
     public static final ConfigInfo<String> GOODBYE_WITH_UNDERSCORES = new BaseConfigInfo<>("bye_bye", String.class);
     public static final ConfigInfo<Boolean> COMPUTED = new DerivedConfigInfo<>(false, Boolean.class, c -> Character.isLowerCase(c.get(GREETING).charAt(0)));
 
+    public static final ConfigInfo<Integer> RETRIES = new BaseConfigInfo<>(3, Integer.TYPE);
+    public static final ConfigInfo<Double> TIMEOUT = new BaseConfigInfo<>(0.5, Double.TYPE);
+
+    private static class PrimitiveHolderExample {
+        @Configurable
+        private int retries;
+
+        @Configurable("timeout")
+        private double timeoutSeconds;
+    }
+
+    private static class StaticHolderExample {
+        @Configurable
+        private static int retries;
+
+        @Configurable
+        private String greeting;
+    }
+
+    private static class WideningHolderExample {
+        @Configurable("retries")
+        private long retries;
+
+        @Configurable("retries")
+        private double retriesAsDouble;
+    }
+
     private class ConfigHolderExample {
         @Configurable
         public String greeting;
@@ -40,4 +67,36 @@ public class ObjLoadingExample {
         Assert.assertEquals("Au_revoir", example.goodbyeWithUnderscores);
         Assert.assertFalse(example.computed);
     }
+
+    @Test
+    public void loadIntoManyInstances() throws ReflectiveOperationException {
+        Config config = new Config(ConfigInfo.findAllIn(ObjLoadingExample.class), false);
+        config.override(RETRIES, 5);
+        for(int i = 0; i < 1000; i++) {
+            PrimitiveHolderExample example = new PrimitiveHolderExample();
+            config.loadInto(example);
+            Assert.assertEquals(5, example.retries);
+            Assert.assertEquals(0.5, example.timeoutSeconds, 0.);
+        }
+    }
+
+    @Test
+    public void loadIntoStaticFields() throws ReflectiveOperationException {
+        Config config = new Config(ConfigInfo.findAllIn(ObjLoadingExample.class), false);
+        config.override(RETRIES, 7);
+        StaticHolderExample example = new StaticHolderExample();
+        config.loadInto(example);
+        Assert.assertEquals(7, StaticHolderExample.retries);
+        Assert.assertEquals("hello", example.greeting);
+    }
+
+    @Test
+    public void loadIntoWiderFields() throws ReflectiveOperationException {
+        Config config = new Config(ConfigInfo.findAllIn(ObjLoadingExample.class), false);
+        config.override(RETRIES, 7);
+        WideningHolderExample example = new WideningHolderExample();
+        config.loadInto(example);
+        Assert.assertEquals(7L, example.retries);
+        Assert.assertEquals(7., example.retriesAsDouble, 0);
+    }
 }
@@ -0,0 +1,91 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pfg.config.BaseConfigInfo;
+import pfg.config.Config;
+import pfg.config.ConfigInfo;
+import pfg.config.DerivedConfigInfo;
+
+/*
+ * Copyright (C) 2013-2019 Pierre-François Gimenez, Xavier Niochaut
+ * Distributed under the MIT License.
+ */
+
+/**
+ * An example of views with overridden values, sharing the values of their config
+ * @author Pierre-François Gimenez
+ *
+ */
+
+public class OverridesExample
+{
+	private static final AtomicInteger derivations = new AtomicInteger();
+
+	public static final ConfigInfo<Integer> WIDTH = new BaseConfigInfo<>(10, Integer.TYPE);
+	public static final ConfigInfo<Integer> HEIGHT = new BaseConfigInfo<>(20, Integer.TYPE);
+	public static final ConfigInfo<String> NAME = new BaseConfigInfo<>("base", String.class);
+	public static final ConfigInfo<Integer> AREA = new DerivedConfigInfo<>(0, Integer.TYPE, c -> {
+		derivations.incrementAndGet();
+		return c.getIntValue(WIDTH) * c.getIntValue(HEIGHT);
+	});
+	public static final ConfigInfo<String> LABEL = new DerivedConfigInfo<>("", String.class, c -> c.get(NAME) + ":" + c.get(AREA));
+
+	@Test
+	public void withOverrides()
+	{
+		Config config = new Config(ConfigInfo.findAllIn(OverridesExample.class), false);
+		config.override(WIDTH, 2);
+		Assert.assertEquals("base:40", config.get(LABEL));
+
+		int before = derivations.get();
+		Map<ConfigInfo<?>, Object> overrides = new HashMap<>();
+		overrides.put(HEIGHT, 5);
+		Config view = config.withOverrides(overrides);
+		Config nested = view.withOverrides(NAME, "nested");
+		Assert.assertEquals(before, derivations.get()); // derived when read
+
+		Assert.assertEquals(5, view.getIntValue(HEIGHT));
+		Assert.assertEquals(2, view.getIntValue(WIDTH));
+		Assert.assertEquals(10, view.getIntValue(AREA));
+		Assert.assertEquals("base:10", view.get(LABEL));
+		Assert.assertEquals(before + 1, derivations.get());
+		Assert.assertEquals("nested:10", nested.getString(LABEL));
+
+		// the views don't see the later modifications of their config, and the config doesn't see their overrides
+		config.override(WIDTH, 3);
+		Assert.assertEquals(60, config.getIntValue(AREA));
+		Assert.assertEquals(10, view.getIntValue(AREA));
+		Assert.assertEquals(2, nested.getIntValue(WIDTH));
+		Assert.assertEquals(3, config.withOverrides(NAME, "other").getIntValue(WIDTH));
+		config.override(WIDTH, 4);
+		Assert.assertEquals(4, config.getIntValue(WIDTH));
+		Assert.assertEquals(2, view.getIntValue(WIDTH));
+		// a view made from a view after a modification of the config still sees the values of the first view
+		Config late = view.withOverrides(NAME, "late");
+		Assert.assertEquals(2, late.getIntValue(WIDTH));
+		Assert.assertEquals("late:10", late.get(LABEL));
+	}
+
+	@Test
+	public void immutable()
+	{
+		Config view = new Config(ConfigInfo.findAllIn(OverridesExample.class), false).withOverrides(WIDTH, 1);
+		try
+		{
+			view.override(WIDTH, 2);
+			Assert.fail();
+		}
+		catch(UnsupportedOperationException e)
+		{}
+		try
+		{
+			view.withOverrides(AREA, 2);
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{}
+	}
+}
@@ -0,0 +1,57 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pfg.config.Config;
+import pfg.config.ConfigInfo;
+import pfg.config.ConfigOptions;
+
+/*
+ * Copyright (C) 2013-2019 Pierre-François Gimenez, Xavier Niochaut
+ * Distributed under the MIT License.
+ */
+
+/**
+ * An example of config file whose values are parsed in parallel
+ * @author Pierre-François Gimenez
+ *
+ */
+
+public class ParallelParsingExample
+{
+	/**
+	 * The values are the same as when they are parsed by the constructing thread, including when a value can't be parsed
+	 */
+	@Test
+	public void sameValues()
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			for(String lastProfile : new String[] {"example", "error"})
+			{
+				Config sequential = new Config(ConfigInfoExample.values(), false, "/config_example.ini", "default", lastProfile);
+				Config parallel = new Config(ConfigInfoExample.values(), false, "/config_example.ini", new ConfigOptions().parallel(executor), "default", lastProfile);
+				for(ConfigInfo info : ConfigInfoExample.values())
+					Assert.assertEquals(sequential.getObject(info), parallel.getObject(info));
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+
+		Config config = new Config(ConfigInfoExample.values(), false, "/config_example.ini", new ConfigOptions().parallel(true), "default", "error");
+		Assert.assertEquals(18754, config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+		try
+		{
+			config.validateAll();
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("42.3"));
+		}
+	}
+}
@@ -0,0 +1,112 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pfg.config.Config;
+import pfg.config.ConfigWatcher;
+
+/*
+ * Copyright (C) 2013-2019 Pierre-François Gimenez, Xavier Niochaut
+ * Distributed under the MIT License.
+ */
+
+/**
+ * An example of a config file reloaded when it changes
+ * @author Pierre-François Gimenez
+ *
+ */
+
+public class ReloadExample
+{
+	/**
+	 * The file changes are applied, while the values overridden since the last loading are kept
+	 */
+	@Test
+	public void manualReload() throws IOException
+	{
+		Path file = ExampleFiles.copyExample();
+		Config config = new Config(ConfigInfoExample.values(), false, file.toString(), "default");
+		config.override(ConfigInfoExample.SOME_STRING_VALUE, "override-value");
+		Assert.assertFalse(config.get(ConfigInfoExample.IS_ODD));
+
+		ExampleFiles.replace(file, "SOME_INTEGER_VALUE = 18754", "SOME_INTEGER_VALUE = 18755");
+		config.reload();
+
+		Assert.assertEquals(18755, config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+		Assert.assertTrue(config.get(ConfigInfoExample.IS_ODD));
+		Assert.assertEquals("override-value", config.get(ConfigInfoExample.SOME_STRING_VALUE));
+	}
+
+	/**
+	 * The file is watched, and reloaded shortly after it changes
+	 */
+	@Test
+	public void watchedReload() throws IOException, InterruptedException
+	{
+		Path file = ExampleFiles.copyExample();
+		Config config = new Config(ConfigInfoExample.values(), false, file.toString(), "default");
+		try(ConfigWatcher watcher = config.watch(50))
+		{
+			ExampleFiles.replace(file, "SOME_INTEGER_VALUE = 18754", "SOME_INTEGER_VALUE = 1");
+			awaitReload(config, 1);
+			Assert.assertTrue(config.get(ConfigInfoExample.IS_ODD));
+		}
+	}
+
+	/**
+	 * The changes of the other files of the directory don't delay the reload
+	 */
+	@Test
+	public void busyDirectory() throws IOException, InterruptedException
+	{
+		Path file = ExampleFiles.copyExample();
+		Path other = ExampleFiles.create(".swp");
+		Config config = new Config(ConfigInfoExample.values(), false, file.toString(), "default");
+		AtomicBoolean done = new AtomicBoolean();
+		Thread noise = new Thread(() -> {
+			try
+			{
+				for(int i = 0; !done.get(); i++)
+				{
+					Files.write(other, Integer.toString(i).getBytes(StandardCharsets.UTF_8));
+					Thread.sleep(10);
+				}
+			}
+			catch(IOException | InterruptedException e)
+			{
+				// stop the noise
+			}
+		});
+		try(ConfigWatcher watcher = config.watch(200))
+		{
+			noise.start();
+			ExampleFiles.replace(file, "SOME_INTEGER_VALUE = 18754", "SOME_INTEGER_VALUE = 1");
+			awaitReload(config, 1);
+		}
+		finally
+		{
+			done.set(true);
+			noise.join();
+		}
+	}
+
+	/**
+	 * Wait until the watched file is reloaded
+	 * @param config
+	 * @param value
+	 * 		the new value of SOME_INTEGER_VALUE
+	 */
+	private static void awaitReload(Config config, int value) throws InterruptedException
+	{
+		long start = System.nanoTime();
+		while(config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE) != value)
+		{
+			Assert.assertTrue("The config file hasn't been reloaded within 5 s", System.nanoTime() - start < 5_000_000_000L);
+			Thread.sleep(5);
+		}
+	}
+}
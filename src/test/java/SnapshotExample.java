@@ -0,0 +1,93 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pfg.config.BaseConfigInfo;
+import pfg.config.Config;
+import pfg.config.ConfigInfo;
+import pfg.config.ConfigOptions;
+
+/*
+ * Copyright (C) 2013-2019 Pierre-François Gimenez, Xavier Niochaut
+ * Distributed under the MIT License.
+ */
+
+/**
+ * An example of a config file compiled into a binary snapshot, loaded instead of the file at startup
+ * @author Pierre-François Gimenez
+ *
+ */
+
+public class SnapshotExample
+{
+	/**
+	 * Rewrite the file without changing its size nor its modification time, so that the snapshot is still considered up to date
+	 */
+	private static void replaceSilently(Path file, String from, String to) throws IOException
+	{
+		FileTime modified = Files.getLastModifiedTime(file);
+		ExampleFiles.replace(file, from, to);
+		Files.setLastModifiedTime(file, modified);
+	}
+
+	/**
+	 * The snapshot gives the values of the config file, without reading it
+	 */
+	@Test
+	public void loadSnapshot() throws IOException
+	{
+		Path file = ExampleFiles.copyExample();
+		Path snapshot = ExampleFiles.create(".bin");
+		new Config(ConfigInfoExample.values(), false, file.toString(), "default", "example").saveSnapshot(snapshot);
+
+		replaceSilently(file, "SOME_INTEGER_VALUE = 42", "SOME_INTEGER_VALUE = 43");
+		Config config = new Config(ConfigInfoExample.values(), false, file.toString(), new ConfigOptions().snapshot(snapshot), "default", "example");
+
+		Assert.assertEquals(42, config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+		Assert.assertEquals("file-value", config.get(ConfigInfoExample.SOME_STRING_VALUE));
+		Assert.assertTrue(config.getBooleanValue(ConfigInfoExample.SOME_BOOLEAN_VALUE));
+		// the derived values are derived again
+		Assert.assertFalse(config.get(ConfigInfoExample.IS_ODD));
+	}
+
+	/**
+	 * The config file is read instead of an outdated snapshot
+	 */
+	@Test
+	public void outdatedSnapshot() throws IOException
+	{
+		Path file = ExampleFiles.copyExample();
+		Path snapshot = ExampleFiles.create(".bin");
+		new Config(ConfigInfoExample.values(), false, file.toString(), "default", "example").saveSnapshot(snapshot);
+
+		// other profiles
+		Config config = new Config(ConfigInfoExample.values(), false, file.toString(), new ConfigOptions().snapshot(snapshot), "default");
+		Assert.assertEquals(18754, config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+
+		// modified config file
+		replaceSilently(file, "SOME_INTEGER_VALUE = 42", "SOME_INTEGER_VALUE = 43");
+		Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10000));
+		config = new Config(ConfigInfoExample.values(), false, file.toString(), new ConfigOptions().snapshot(snapshot), "default", "example");
+		Assert.assertEquals(43, config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+	}
+
+	/**
+	 * The values given by the config file are kept, even if they are the default values and the default values change
+	 */
+	@Test
+	public void changedDefaultValue() throws IOException
+	{
+		Path file = ExampleFiles.write("[default]\nSPEED = 1\n");
+		Path snapshot = ExampleFiles.create(".bin");
+		ConfigInfo<Integer> speed = new BaseConfigInfo<>("SPEED", 1, Integer.TYPE);
+		new Config(new ConfigInfo<?>[] {speed}, false, file.toString(), "default").saveSnapshot(snapshot);
+
+		replaceSilently(file, "SPEED = 1", "SPEED = 3");
+		ConfigInfo<Integer> newSpeed = new BaseConfigInfo<>("SPEED", 2, Integer.TYPE);
+		Config config = new Config(new ConfigInfo<?>[] {newSpeed}, false, file.toString(), new ConfigOptions().snapshot(snapshot), "default");
+		Assert.assertEquals(1, config.getIntValue(newSpeed));
+	}
+}
@@ -0,0 +1,95 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pfg.config.Config;
+import pfg.config.ConfigOptions;
+import pfg.config.ConfigSource;
+
+/*
+ * Copyright (C) 2013-2019 Pierre-François Gimenez, Xavier Niochaut
+ * Distributed under the MIT License.
+ */
+
+/**
+ * An example of sources layered over the config file
+ * @author Pierre-François Gimenez
+ *
+ */
+
+public class SourcesExample
+{
+	/**
+	 * The last sources have precedence over the first ones, that have precedence over the config file
+	 */
+	@Test
+	public void precedence() throws IOException
+	{
+		Path directory = Files.createTempDirectory("config_overrides");
+		Files.write(directory.resolve("SOME_STRING_VALUE"), "from-directory\n".getBytes(StandardCharsets.UTF_8));
+		System.setProperty("sourcesexample.some_double_value", "2.5");
+		System.setProperty("sourcesexample.some_string_value", "from-property");
+		try
+		{
+			ConfigOptions options = new ConfigOptions().sources(ConfigSource.systemProperties("sourcesexample."),
+					ConfigSource.directory(directory),
+					ConfigSource.arguments("--SOME_INTEGER_VALUE=7", "ignored", "SOME_DOUBLE_VALUE=abc"));
+			Config config = new Config(ConfigInfoExample.values(), false, "/config_example.ini", options, "default");
+			Assert.assertEquals(7, config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+			Assert.assertEquals(2.5, config.getDoubleValue(ConfigInfoExample.SOME_DOUBLE_VALUE), 0); // "abc" can't be parsed: value of the previous source
+			Assert.assertEquals("from-directory", config.get(ConfigInfoExample.SOME_STRING_VALUE));
+			Assert.assertTrue(config.getBooleanValue(ConfigInfoExample.SOME_BOOLEAN_VALUE));
+			Assert.assertTrue(config.get(ConfigInfoExample.IS_ODD));
+
+			Files.write(directory.resolve("SOME_STRING_VALUE"), "modified".getBytes(StandardCharsets.UTF_8));
+			Files.setLastModifiedTime(directory.resolve("SOME_STRING_VALUE"), FileTime.fromMillis(0));
+			config.reload();
+			Assert.assertEquals("modified", config.get(ConfigInfoExample.SOME_STRING_VALUE));
+		}
+		finally
+		{
+			System.clearProperty("sourcesexample.some_double_value");
+			System.clearProperty("sourcesexample.some_string_value");
+		}
+	}
+
+	/**
+	 * Without config file, and the sources whose version didn't change aren't read again
+	 */
+	@Test
+	public void reloadChangedSources()
+	{
+		AtomicInteger reads = new AtomicInteger();
+		AtomicInteger version = new AtomicInteger();
+		ConfigSource versioned = new ConfigSource()
+		{
+			@Override
+			public void read(BiConsumer<String, String> values)
+			{
+				reads.incrementAndGet();
+				values.accept("someIntegerValue", String.valueOf(version.get()));
+			}
+
+			@Override
+			public long version()
+			{
+				return version.get();
+			}
+		};
+		Config config = new Config(ConfigInfoExample.values(), false, null, new ConfigOptions().sources(versioned), (String) null);
+		Assert.assertEquals(0, config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+		Assert.assertTrue(config.reload().isEmpty());
+		Assert.assertEquals(1, reads.get());
+
+		version.set(3);
+		Assert.assertTrue(config.reload().contains(ConfigInfoExample.IS_ODD));
+		Assert.assertEquals(3, config.getIntValue(ConfigInfoExample.SOME_INTEGER_VALUE));
+		Assert.assertEquals(2, reads.get());
+	}
+}
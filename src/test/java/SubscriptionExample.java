@@ -0,0 +1,49 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pfg.config.*;
+
+/**
+ * Example of components notified when the config changes, instead of polling it
+ * @author Pierre-François Gimenez
+ */
+public class SubscriptionExample {
+
+    public static final ConfigInfo<Integer> WIDTH = new BaseConfigInfo<>(2, Integer.class);
+    public static final ConfigInfo<Integer> HEIGHT = new BaseConfigInfo<>(3, Integer.class);
+    public static final ConfigInfo<Integer> AREA = new DerivedConfigInfo<>(6, Integer.class, c -> c.get(WIDTH) * c.get(HEIGHT));
+
+    @Test
+    public void notifications() {
+        Config config = new Config(ConfigInfo.findAllIn(SubscriptionExample.class), false);
+        List<Integer> areas = new ArrayList<>();
+        List<Set<ConfigInfo<?>>> groups = new ArrayList<>();
+        ConfigSubscription areaSubscription = config.subscribe(AREA, areas::add);
+        config.subscribe(groups::add, WIDTH, HEIGHT);
+
+        // the derived value changes as a side effect
+        config.override(WIDTH, 4);
+        Assert.assertEquals(Arrays.asList(12), areas);
+        Assert.assertEquals(1, groups.size());
+
+        // one notification per listener for the whole batch
+        config.edit().set(WIDTH, 5).set(HEIGHT, 5).commit();
+        Assert.assertEquals(Arrays.asList(12, 25), areas);
+        Assert.assertEquals(2, groups.size());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(WIDTH, HEIGHT)), groups.get(1));
+
+        // nothing changed
+        config.override(WIDTH, 5);
+        Assert.assertEquals(2, groups.size());
+
+        areaSubscription.cancel();
+        config.override(WIDTH, 1);
+        Assert.assertEquals(Arrays.asList(12, 25), areas);
+        Assert.assertEquals(3, groups.size());
+    }
+}